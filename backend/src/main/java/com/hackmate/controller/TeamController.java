@@ -1,16 +1,30 @@
 package com.hackmate.controller;
 
 import com.hackmate.dto.ApiResponse;
+import com.hackmate.dto.CursorSlice;
+import com.hackmate.dto.PageCursor;
 import com.hackmate.dto.TeamCreateRequest;
 import com.hackmate.dto.TeamUpdateRequest;
+import com.hackmate.dto.TeamView;
 import com.hackmate.model.Team;
 import com.hackmate.model.User;
+import com.hackmate.repository.TeamMembershipRepository;
 import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.TeamScrollRepository;
 import com.hackmate.repository.UserRepository;
 import com.hackmate.security.UserPrincipal;
+import com.hackmate.service.DeletionService;
+import com.hackmate.service.MembershipService;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.PopularSkillSketch;
+import com.hackmate.service.matching.TeamSkillIndex;
+import com.hackmate.service.matching.TrendingDomainCounter;
+import com.hackmate.service.search.AutocompleteIndex;
+import com.hackmate.service.search.TeamSearchIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -19,7 +33,12 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -27,12 +46,41 @@ import java.util.Set;
 @RequestMapping("/api/teams")
 public class TeamController {
     
+    private static final int MAX_SCROLL_SIZE = 100;
+    
     @Autowired
     private TeamRepository teamRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+    
+    @Autowired
+    private TrendingDomainCounter trendingDomainCounter;
+    
+    @Autowired
+    private PopularSkillSketch popularSkillSketch;
+    
+    @Autowired
+    private TeamScrollRepository teamScrollRepository;
+    
+    @Autowired
+    private MembershipService membershipService;
+    
+    @Autowired
+    private DeletionService deletionService;
+    
+    @Autowired
+    private TeamViewCache teamViewCache;
+    
+    @Autowired
+    private TeamSearchIndex teamSearchIndex;
+    
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+    
     @PostMapping
     public ResponseEntity<?> createTeam(@Valid @RequestBody TeamCreateRequest teamRequest,
                                        @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -54,6 +102,16 @@ public class TeamController {
         team.addMember(creator);
         
         Team savedTeam = teamRepository.save(team);
+        membershipService.teamCreated(savedTeam);
+        teamSkillIndex.upsert(savedTeam);
+        // Nothing is cached yet; the notice tells other instances to index the new team
+        teamViewCache.invalidate(savedTeam.getId());
+        trendingDomainCounter.recordCreated(savedTeam.getProjectDomain(), savedTeam.getCreatedAt());
+        popularSkillSketch.recordChange(Collections.emptySet(), savedTeam.getRequiredSkills());
+        teamSearchIndex.index(savedTeam);
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.SKILL, Collections.emptySet(), savedTeam.getRequiredSkills());
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.DOMAIN, Collections.emptySet(),
+                Collections.singleton(savedTeam.getProjectDomain()));
         return ResponseEntity.ok(savedTeam);
     }
     
@@ -93,8 +151,24 @@ public class TeamController {
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Team> teams = teamRepository.searchTeamsByKeyword(keyword, pageable);
-        return ResponseEntity.ok(teams);
+        if (!teamSearchIndex.isReady()) {
+            return ResponseEntity.ok(teamRepository.searchTeamsByKeyword(keyword, pageable));
+        }
+        
+        // Relevance order from the search index, then load just this page's teams
+        TeamSearchIndex.SearchResult result = teamSearchIndex.search(keyword, (int) pageable.getOffset(), size);
+        Map<Long, Team> teamsById = new HashMap<>();
+        for (Team team : teamRepository.findAllById(result.getTeamIds())) {
+            teamsById.put(team.getId(), team);
+        }
+        List<Team> teams = new ArrayList<>(result.getTeamIds().size());
+        for (Long teamId : result.getTeamIds()) {
+            Team team = teamsById.get(teamId);
+            if (team != null) {
+                teams.add(team);
+            }
+        }
+        return ResponseEntity.ok(new PageImpl<>(teams, pageable, result.getTotal()));
     }
     
     @GetMapping("/available")
@@ -108,6 +182,67 @@ public class TeamController {
         return ResponseEntity.ok(teams);
     }
     
+    /**
+     * Keyset-paged variant of getAllTeams: no total count, pass nextCursor to continue
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollTeams(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) Boolean isOpen) {
+        
+        TeamScrollRepository.Filter filter = new TeamScrollRepository.Filter()
+                .domain(domain)
+                .open(isOpen);
+        return scroll(filter, cursor, size, sortBy, sortDir);
+    }
+    
+    @GetMapping("/search/scroll")
+    public ResponseEntity<?> scrollSearchTeams(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        return scroll(new TeamScrollRepository.Filter().keyword(keyword), cursor, size, "createdAt", "desc");
+    }
+    
+    @GetMapping("/available/scroll")
+    public ResponseEntity<?> scrollAvailableTeams(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        TeamScrollRepository.Filter filter = new TeamScrollRepository.Filter()
+                .availableFor(userPrincipal.getId());
+        return scroll(filter, cursor, size, "createdAt", "desc");
+    }
+    
+    private ResponseEntity<?> scroll(TeamScrollRepository.Filter filter, String cursor, int size,
+                                     String sortBy, String sortDir) {
+        boolean ascending = sortDir.equalsIgnoreCase("asc");
+        if (!TeamScrollRepository.SORT_PROPERTIES.contains(sortBy)) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Cannot page by " + sortBy));
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        
+        try {
+            PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+            if (after != null && !after.matches(sortBy, ascending)) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Cursor does not match the requested sort"));
+            }
+            List<Team> teams = teamScrollRepository.scroll(filter, sortBy, ascending, after, pageSize + 1);
+            return ResponseEntity.ok(CursorSlice.of(teams, pageSize,
+                    team -> TeamScrollRepository.cursorAfter(team, sortBy, ascending)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+    
     @GetMapping("/my-teams")
     public ResponseEntity<List<Team>> getMyTeams(@AuthenticationPrincipal UserPrincipal userPrincipal) {
         List<Team> teams = teamRepository.findByMembersId(userPrincipal.getId());
@@ -121,8 +256,8 @@ public class TeamController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
-        Optional<Team> team = teamRepository.findById(id);
+    public ResponseEntity<TeamView> getTeamById(@PathVariable Long id) {
+        Optional<TeamView> team = teamViewCache.get(id);
         return team.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
@@ -145,6 +280,9 @@ public class TeamController {
                     .body(new ApiResponse(false, "Only team creator can update team details"));
         }
         
+        String previousDomain = team.getProjectDomain();
+        Set<String> previousSkills = new HashSet<>(team.getRequiredSkills());
+        
         // Update team details
         if (teamRequest.getName() != null) {
             team.setName(teamRequest.getName());
@@ -167,6 +305,14 @@ public class TeamController {
         
         team.setUpdatedAt(LocalDateTime.now());
         Team updatedTeam = teamRepository.save(team);
+        teamViewCache.invalidate(id);
+        teamSkillIndex.upsert(updatedTeam);
+        trendingDomainCounter.recordDomainChange(previousDomain, updatedTeam.getProjectDomain(), updatedTeam.getCreatedAt());
+        popularSkillSketch.recordChange(previousSkills, updatedTeam.getRequiredSkills());
+        teamSearchIndex.index(updatedTeam);
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.SKILL, previousSkills, updatedTeam.getRequiredSkills());
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.DOMAIN, Collections.singleton(previousDomain),
+                Collections.singleton(updatedTeam.getProjectDomain()));
         
         return ResponseEntity.ok(updatedTeam);
     }
@@ -190,20 +336,19 @@ public class TeamController {
                     .body(new ApiResponse(false, "Team is not open for new members"));
         }
         
-        // Check if user is already a member
-        if (team.getMembers().contains(user)) {
+        // Reserve a slot and add the membership atomically
+        TeamMembershipRepository.JoinResult result = membershipService.join(team, user);
+        if (result == TeamMembershipRepository.JoinResult.ALREADY_MEMBER) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "You are already a member of this team"));
         }
-        
-        // Check if team is full
-        if (team.getMembers().size() >= team.getMaxMembers()) {
+        if (result == TeamMembershipRepository.JoinResult.FULL) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Team is full"));
         }
         
-        team.addMember(user);
-        teamRepository.save(team);
+        teamViewCache.invalidate(id);
+        teamSkillIndex.memberJoined(id, user.getId());
         
         return ResponseEntity.ok(new ApiResponse(true, "Successfully joined the team"));
     }
@@ -221,20 +366,20 @@ public class TeamController {
         User user = userRepository.findById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Check if user is a member
-        if (!team.getMembers().contains(user)) {
-            return ResponseEntity.badRequest()
-                    .body(new ApiResponse(false, "You are not a member of this team"));
-        }
-        
         // Creator cannot leave their own team
         if (team.getCreator().getId().equals(userPrincipal.getId())) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Team creator cannot leave the team. Delete the team instead."));
         }
         
-        team.removeMember(user);
-        teamRepository.save(team);
+        // Check if user is a member while removing them
+        if (!membershipService.leave(team, user)) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "You are not a member of this team"));
+        }
+        
+        teamViewCache.invalidate(id);
+        teamSkillIndex.memberLeft(id, user.getId());
         
         return ResponseEntity.ok(new ApiResponse(true, "Successfully left the team"));
     }
@@ -256,8 +401,9 @@ public class TeamController {
                     .body(new ApiResponse(false, "Only team creator can delete the team"));
         }
         
-        teamRepository.delete(team);
-        return ResponseEntity.ok(new ApiResponse(true, "Team deleted successfully"));
+        // Chat history and invitations are purged in the background
+        deletionService.deleteTeam(team);
+        return ResponseEntity.accepted().body(new ApiResponse(true, "Team deleted successfully"));
     }
     
     @GetMapping("/by-skills")
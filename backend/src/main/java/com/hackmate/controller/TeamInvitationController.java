@@ -1,14 +1,23 @@
 package com.hackmate.controller;
 
 import com.hackmate.dto.ApiResponse;
+import com.hackmate.dto.BulkInvitationRequest;
+import com.hackmate.dto.BulkInvitationResult;
 import com.hackmate.dto.TeamInvitationRequest;
+import com.hackmate.dto.TeamView;
 import com.hackmate.model.*;
 import com.hackmate.repository.TeamInvitationRepository;
+import com.hackmate.repository.TeamMembershipRepository;
 import com.hackmate.repository.TeamRepository;
 import com.hackmate.repository.UserRepository;
 import com.hackmate.security.UserPrincipal;
+import com.hackmate.service.BulkInvitationService;
+import com.hackmate.service.MembershipService;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.TeamSkillIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -31,28 +40,45 @@ public class TeamInvitationController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+    
+    @Autowired
+    private MembershipService membershipService;
+    
+    @Autowired
+    private TeamViewCache teamViewCache;
+    
+    @Autowired
+    private BulkInvitationService bulkInvitationService;
+    
+    @Value("${app.invitations.bulk.max-recipients:5000}")
+    private int maxBulkRecipients;
+    
     @PostMapping
     public ResponseEntity<?> sendInvitation(@Valid @RequestBody TeamInvitationRequest invitationRequest,
                                            @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
-        Team team = teamRepository.findById(invitationRequest.getTeamId())
+        TeamView teamView = teamViewCache.get(invitationRequest.getTeamId())
                 .orElseThrow(() -> new RuntimeException("Team not found"));
         
         User inviter = userRepository.findById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Check if user is a member of the team
-        if (!team.getMembers().contains(inviter)) {
+        if (!membershipService.isMember(teamView.getId(), inviter.getId())) {
             return ResponseEntity.status(403)
                     .body(new ApiResponse(false, "Only team members can send invitations"));
         }
         
         // Check if team is full
-        if (team.getMembers().size() >= team.getMaxMembers()) {
+        if (teamView.isFull()) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Team is full"));
         }
         
+        // The invitation only needs the team's id
+        Team team = teamRepository.getReferenceById(teamView.getId());
         TeamInvitation invitation = new TeamInvitation();
         invitation.setTeam(team);
         invitation.setInviter(inviter);
@@ -69,7 +95,7 @@ public class TeamInvitationController {
                     .orElseThrow(() -> new RuntimeException("Invitee not found"));
             
             // Check if user is already a member
-            if (team.getMembers().contains(invitee)) {
+            if (membershipService.isMember(team.getId(), invitee.getId())) {
                 return ResponseEntity.badRequest()
                         .body(new ApiResponse(false, "User is already a member of this team"));
             }
@@ -111,6 +137,32 @@ public class TeamInvitationController {
         return ResponseEntity.ok(new ApiResponse(true, "Invitation sent successfully"));
     }
     
+    /**
+     * Invite a list of users and email addresses to a team, reporting the outcome for each
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> sendBulkInvitations(@Valid @RequestBody BulkInvitationRequest bulkRequest,
+                                                 @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        
+        TeamView teamView = teamViewCache.get(bulkRequest.getTeamId())
+                .orElseThrow(() -> new RuntimeException("Team not found"));
+        
+        if (!membershipService.isMember(teamView.getId(), userPrincipal.getId())) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only team members can send invitations"));
+        }
+        
+        List<Long> inviteeIds = bulkRequest.getInviteeIds() != null ? bulkRequest.getInviteeIds() : List.of();
+        List<String> inviteeEmails = bulkRequest.getInviteeEmails() != null ? bulkRequest.getInviteeEmails() : List.of();
+        if (inviteeIds.size() + inviteeEmails.size() > maxBulkRecipients) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "At most " + maxBulkRecipients + " recipients per request"));
+        }
+        
+        BulkInvitationResult result = bulkInvitationService.invite(teamView, userPrincipal.getId(), inviteeIds, inviteeEmails);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/received")
     public ResponseEntity<List<TeamInvitation>> getReceivedInvitations(
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -132,14 +184,8 @@ public class TeamInvitationController {
             @PathVariable Long teamId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
         // Check if user is a member of the team
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!team.getMembers().contains(user)) {
+        if (!membershipService.isMember(teamId, userPrincipal.getId())) {
             return ResponseEntity.status(403).build();
         }
         
@@ -177,28 +223,21 @@ public class TeamInvitationController {
         Team team = invitation.getTeam();
         User user = invitation.getInvitee();
         
-        // Check if team is full
-        if (team.getMembers().size() >= team.getMaxMembers()) {
+        // Add user to team if there is a free slot and they are not a member yet, accepting the
+        // invitation in the same transaction
+        TeamMembershipRepository.JoinResult result = membershipService.acceptInvitation(invitation, user);
+        if (result == TeamMembershipRepository.JoinResult.FULL) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Team is full"));
         }
-        
-        // Check if user is already a member
-        if (team.getMembers().contains(user)) {
+        if (result == TeamMembershipRepository.JoinResult.ALREADY_MEMBER) {
             invitation.setStatus(InvitationStatus.ACCEPTED);
             invitation.setUpdatedAt(LocalDateTime.now());
             invitationRepository.save(invitation);
             return ResponseEntity.ok(new ApiResponse(true, "You are already a member of this team"));
         }
-        
-        // Add user to team
-        team.addMember(user);
-        teamRepository.save(team);
-        
-        // Update invitation status
-        invitation.setStatus(InvitationStatus.ACCEPTED);
-        invitation.setUpdatedAt(LocalDateTime.now());
-        invitationRepository.save(invitation);
+        teamViewCache.invalidate(team.getId());
+        teamSkillIndex.memberJoined(team.getId(), user.getId());
         
         return ResponseEntity.ok(new ApiResponse(true, "Invitation accepted successfully"));
     }
@@ -262,31 +301,19 @@ public class TeamInvitationController {
         User user = userRepository.findById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Check if team is full
-        if (team.getMembers().size() >= team.getMaxMembers()) {
+        // Add user to team if there is a free slot and they are not a member yet, accepting the
+        // invitation (and naming the invitee of an email or phone invitation) in the same transaction
+        TeamMembershipRepository.JoinResult result = membershipService.acceptInvitation(invitation, user);
+        if (result == TeamMembershipRepository.JoinResult.FULL) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Team is full"));
         }
-        
-        // Check if user is already a member
-        if (team.getMembers().contains(user)) {
+        if (result == TeamMembershipRepository.JoinResult.ALREADY_MEMBER) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "You are already a member of this team"));
         }
-        
-        // For email/phone invitations, set the invitee
-        if (invitation.getInvitee() == null) {
-            invitation.setInvitee(user);
-        }
-        
-        // Add user to team
-        team.addMember(user);
-        teamRepository.save(team);
-        
-        // Update invitation status
-        invitation.setStatus(InvitationStatus.ACCEPTED);
-        invitation.setUpdatedAt(LocalDateTime.now());
-        invitationRepository.save(invitation);
+        teamViewCache.invalidate(team.getId());
+        teamSkillIndex.memberJoined(team.getId(), user.getId());
         
         return ResponseEntity.ok(new ApiResponse(true, "Invitation accepted successfully"));
     }
@@ -0,0 +1,40 @@
+package com.hackmate.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkInvitationRequest {
+
+    @NotNull
+    private Long teamId;
+
+    private List<Long> inviteeIds = new ArrayList<>(); // Direct invitations to existing users
+
+    private List<String> inviteeEmails = new ArrayList<>(); // Email invitations
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public List<Long> getInviteeIds() {
+        return inviteeIds;
+    }
+
+    public void setInviteeIds(List<Long> inviteeIds) {
+        this.inviteeIds = inviteeIds;
+    }
+
+    public List<String> getInviteeEmails() {
+        return inviteeEmails;
+    }
+
+    public void setInviteeEmails(List<String> inviteeEmails) {
+        this.inviteeEmails = inviteeEmails;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hackmate.dto;
+
+import com.hackmate.service.matching.FormationPlan;
+
+import java.time.LocalDateTime;
+
+public class FormationProposal {
+    private String id;
+    private Long organizerId;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private FormationPlan plan;
+
+    public FormationProposal(String id, Long organizerId, LocalDateTime createdAt, LocalDateTime expiresAt,
+                             FormationPlan plan) {
+        this.id = id;
+        this.organizerId = organizerId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.plan = plan;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getOrganizerId() {
+        return organizerId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public FormationPlan getPlan() {
+        return plan;
+    }
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
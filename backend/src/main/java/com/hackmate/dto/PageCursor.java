@@ -0,0 +1,67 @@
+package com.hackmate.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: the sort it was taken under, that row's sort
+ * value and its id. Clients see it only as an opaque URL-safe string.
+ */
+public class PageCursor {
+    private final String sortBy;
+    private final boolean ascending;
+    private final String value;
+    private final long id;
+
+    public PageCursor(String sortBy, boolean ascending, String value, long id) {
+        this.sortBy = sortBy;
+        this.ascending = ascending;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = sortBy + "|" + (ascending ? "asc" : "desc") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor produced by encode, throwing IllegalArgumentException if it is malformed
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(parts[0], parts[1].equals("asc"), parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            // Also covers bad Base64 and a non-numeric id
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    /**
+     * True if this cursor was issued for the given sort
+     */
+    public boolean matches(String sortBy, boolean ascending) {
+        return this.sortBy.equals(sortBy) && this.ascending == ascending;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hackmate.model;
 
+import com.hackmate.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 public class ChatMessage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @NotBlank
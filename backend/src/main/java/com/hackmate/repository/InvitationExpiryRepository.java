@@ -0,0 +1,57 @@
+package com.hackmate.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based expiry of pending invitations past their expires_at. Each chunk reads the ids of the
+ * oldest expired rows from the idx_expires index and flips them in one UPDATE, since PostgreSQL
+ * has no UPDATE ... LIMIT. The status guard makes a chunk a no-op for rows accepted meanwhile.
+ */
+@Repository
+public class InvitationExpiryRepository {
+
+    private static final String EXPIRED_IDS_SQL =
+            "SELECT id FROM team_invitations WHERE expires_at < ? AND status = 'PENDING' ORDER BY expires_at LIMIT ?";
+
+    private static final String EXPIRE_SQL =
+            "UPDATE team_invitations SET status = 'EXPIRED', updated_at = :now WHERE id IN (:ids) AND status = 'PENDING'";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Expire up to limit invitations that ran out before now, returning how many were expired
+     */
+    @Transactional
+    public int expireChunk(LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Long> ids = jdbcTemplate.queryForList(EXPIRED_IDS_SQL, Long.class, timestamp, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("now", timestamp)
+                .addValue("ids", ids);
+        return namedJdbcTemplate.update(EXPIRE_SQL, parameters);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +41,12 @@ public interface TeamInvitationRepository extends JpaRepository<TeamInvitation,
     @Query("SELECT ti FROM TeamInvitation ti WHERE ti.team = :team AND ti.invitee = :user AND ti.status = 'PENDING'")
     Optional<TeamInvitation> findPendingInvitationByTeamAndUser(@Param("team") Team team, @Param("user") User user);
     
+    @Query("SELECT ti.team.id, ti.invitee.id FROM TeamInvitation ti WHERE ti.team.id IN :teamIds AND ti.invitee IS NOT NULL AND ti.status = 'PENDING'")
+    List<Object[]> findPendingInviteePairsByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+    
+    @Query("SELECT ti.inviteeEmail FROM TeamInvitation ti WHERE ti.team.id = :teamId AND ti.inviteeEmail IN :emails AND ti.status = 'PENDING'")
+    List<String> findPendingInviteeEmails(@Param("teamId") Long teamId, @Param("emails") Collection<String> emails);
+    
     Boolean existsByTeamAndInviteeEmailAndStatus(Team team, String email, TeamInvitation.InvitationStatus status);
     
     Boolean existsByTeamAndInviteeAndStatus(Team team, User invitee, TeamInvitation.InvitationStatus status);
@@ -2,12 +2,15 @@ package com.hackmate.repository;
 
 import com.hackmate.model.Team;
 import com.hackmate.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -33,40 +36,85 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("SELECT t FROM Team t JOIN t.members m WHERE m = :user")
     List<Team> findTeamsByMember(@Param("user") User user);
     
-    @Query("SELECT t FROM Team t WHERE SIZE(t.members) < t.maxMembers AND t.isOpen = true")
+    @Query("SELECT t FROM Team t WHERE t.memberCount < t.maxMembers AND t.isOpen = true")
     List<Team> findAvailableTeams();
     
-    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE rs IN :skills AND t.projectDomain = :domain AND t.isOpen = true AND SIZE(t.members) < t.maxMembers")
+    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE rs IN :skills AND t.projectDomain = :domain AND t.isOpen = true AND t.memberCount < t.maxMembers")
     List<Team> findMatchingTeams(@Param("skills") Set<String> skills, @Param("domain") String domain);
     
     @Query("SELECT t FROM Team t WHERE t.description LIKE %:keyword% OR t.name LIKE %:keyword% OR t.projectDomain LIKE %:keyword%")
     List<Team> searchTeams(@Param("keyword") String keyword);
     
-    @Query("SELECT t FROM Team t WHERE t.status = 'ACTIVE' AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT t FROM Team t WHERE t.isOpen = true AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     List<Team> findActiveTeamsNotMemberOf(@Param("userId") Long userId);
 
     // Team matching and discovery methods
-    @Query("SELECT t FROM Team t WHERE t.status = 'ACTIVE' AND SIZE(t.members) < t.maxMembers AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT t FROM Team t WHERE t.isOpen = true AND t.memberCount < t.maxMembers AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     List<Team> findOpenTeamsNotMemberOf(@Param("userId") Long userId);
 
-    @Query("SELECT t FROM Team t WHERE t.status = 'ACTIVE' AND SIZE(t.members) < t.maxMembers AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT t FROM Team t WHERE t.isOpen = true AND t.memberCount < t.maxMembers AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     Page<Team> findOpenTeamsNotMemberOf(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT t FROM Team t WHERE t.status = 'ACTIVE' AND SIZE(t.members) < t.maxMembers AND t.projectDomain = :domain AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT t FROM Team t WHERE t.isOpen = true AND t.memberCount < t.maxMembers AND t.projectDomain = :domain AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     Page<Team> findOpenTeamsByDomain(@Param("domain") String domain, @Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE t.status = 'ACTIVE' AND SIZE(t.members) < t.maxMembers AND rs.skillName IN :skills AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE t.isOpen = true AND t.memberCount < t.maxMembers AND rs IN :skills AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     Page<Team> findOpenTeamsBySkills(@Param("skills") List<String> skills, @Param("userId") Long userId, Pageable pageable);
 
-    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE t.status = 'ACTIVE' AND SIZE(t.members) < t.maxMembers AND t.projectDomain = :domain AND rs.skillName IN :skills AND t.id NOT IN (SELECT tm.team.id FROM TeamMember tm WHERE tm.user.id = :userId)")
+    @Query("SELECT DISTINCT t FROM Team t JOIN t.requiredSkills rs WHERE t.isOpen = true AND t.memberCount < t.maxMembers AND t.projectDomain = :domain AND rs IN :skills AND t.id NOT IN (SELECT mt.id FROM Team mt JOIN mt.members m WHERE m.id = :userId)")
     Page<Team> findOpenTeamsByDomainAndSkills(@Param("domain") String domain, @Param("skills") List<String> skills, @Param("userId") Long userId, Pageable pageable);
 
+    @Query("SELECT t.id, m.id FROM Team t JOIN t.members m WHERE t.isOpen = true")
+    List<Object[]> findOpenTeamMemberIds();
+
+    @Query("SELECT t.id, m.id, s FROM Team t JOIN t.members m JOIN m.skills s WHERE t.isOpen = true")
+    List<Object[]> findOpenTeamMemberSkills();
+
+    @Query("SELECT m.id FROM Team t JOIN t.members m WHERE t.id = :teamId")
+    List<Long> findMemberIdsByTeamId(@Param("teamId") Long teamId);
+
+    @Query("SELECT m.id, s FROM Team t JOIN t.members m JOIN m.skills s WHERE t.id = :teamId")
+    List<Object[]> findMemberSkillsByTeamId(@Param("teamId") Long teamId);
+
+    @Query("SELECT t.id FROM Team t WHERE t.isOpen = true AND t.updatedAt > :since")
+    List<Long> findOpenTeamIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    List<Team> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("SELECT t.id FROM Team t")
+    List<Long> findAllIds();
+
+    // Discovery DTO projections, one statement each for a whole page of teams
+    @Query("SELECT t.id, t.name, t.description, t.projectDomain, t.maxMembers, t.isOpen, t.createdAt, c.id, c.username, c.fullName FROM Team t JOIN t.creator c WHERE t.id IN :ids")
+    List<Object[]> findDiscoveryRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id, rs FROM Team t JOIN t.requiredSkills rs WHERE t.id IN :ids")
+    List<Object[]> findRequiredSkillsByTeamIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id, m.id, m.username, m.fullName, m.profileImageUrl FROM Team t JOIN t.members m WHERE t.id IN :ids")
+    List<Object[]> findMemberRowsByTeamIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT s FROM Team t JOIN t.requiredSkills s")
+    List<String> findDistinctRequiredSkills();
+
+    @Query("SELECT DISTINCT t.projectDomain FROM Team t WHERE t.projectDomain IS NOT NULL")
+    List<String> findDistinctProjectDomains();
+
+    @Query("SELECT t.projectDomain, COUNT(t) FROM Team t WHERE t.projectDomain IS NOT NULL GROUP BY t.projectDomain")
+    List<Object[]> findProjectDomainCounts();
+
+    @Query("SELECT t.projectDomain, t.createdAt FROM Team t WHERE t.createdAt >= :since")
+    List<Object[]> findDomainsCreatedSince(@Param("since") LocalDateTime since);
+
     @Query("SELECT t.projectDomain, COUNT(t) FROM Team t WHERE t.createdAt >= :since GROUP BY t.projectDomain ORDER BY COUNT(t) DESC")
     List<Object[]> findTrendingDomains(@Param("since") LocalDateTime since, Pageable pageable);
 
     @Query("SELECT t.projectDomain, COUNT(t) FROM Team t WHERE t.createdAt >= CURRENT_DATE - 30 GROUP BY t.projectDomain ORDER BY COUNT(t) DESC")
     List<Object[]> findTrendingDomains(Pageable pageable);
 
-    @Query("SELECT rs.skillName, COUNT(rs) FROM Team t JOIN t.requiredSkills rs GROUP BY rs.skillName ORDER BY COUNT(rs) DESC")
+    @Query("SELECT rs, COUNT(rs) FROM Team t JOIN t.requiredSkills rs GROUP BY rs ORDER BY COUNT(rs) DESC")
     List<Object[]> findPopularSkills(Pageable pageable);
+
+    @Query("SELECT rs, COUNT(t) FROM Team t JOIN t.requiredSkills rs GROUP BY rs")
+    List<Object[]> findRequiredSkillCounts();
 }
\ No newline at end of file
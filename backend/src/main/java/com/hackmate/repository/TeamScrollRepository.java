@@ -0,0 +1,157 @@
+package com.hackmate.repository;
+
+import com.hackmate.dto.PageCursor;
+import com.hackmate.model.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Keyset (seek) pagination over teams. Each page continues strictly after the sort value and id
+ * of the previous page's last row, so it is served from a (sort column, id) index range scan no
+ * matter how deep it is, and no count query runs.
+ */
+@Repository
+public class TeamScrollRepository {
+
+    /**
+     * Sort properties that can be used for keyset pages; each has a (column, id) index
+     */
+    public static final Set<String> SORT_PROPERTIES = Set.of("createdAt", "updatedAt", "name", "maxMembers");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Up to limit teams matching the filter in (sortBy, id) order, after the cursor if one is given.
+     * Callers ask for one row more than they show to learn whether there is a next page.
+     */
+    public List<Team> scroll(Filter filter, String sortBy, boolean ascending, PageCursor after, int limit) {
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Team t WHERE 1 = 1");
+
+        if (filter.domain != null) {
+            jpql.append(" AND t.projectDomain = :domain");
+            parameters.put("domain", filter.domain);
+        }
+        if (filter.open != null) {
+            jpql.append(" AND t.isOpen = :open");
+            parameters.put("open", filter.open);
+        }
+        if (filter.keyword != null) {
+            jpql.append(" AND (t.description LIKE :keyword OR t.name LIKE :keyword OR t.projectDomain LIKE :keyword)");
+            parameters.put("keyword", "%" + filter.keyword + "%");
+        }
+        if (filter.skills != null && !filter.skills.isEmpty()) {
+            jpql.append(" AND EXISTS (SELECT 1 FROM Team st JOIN st.requiredSkills rs WHERE st = t AND rs IN :skills)");
+            parameters.put("skills", filter.skills);
+        }
+        if (filter.availableFor != null) {
+            jpql.append(" AND t.isOpen = true AND t.memberCount < t.maxMembers")
+                .append(" AND NOT EXISTS (SELECT 1 FROM Team mt JOIN mt.members m WHERE mt = t AND m.id = :userId)");
+            parameters.put("userId", filter.availableFor);
+        }
+        if (after != null) {
+            // The leading inclusive bound lets the database range-scan the (sortBy, id) index
+            String comparison = ascending ? ">" : "<";
+            jpql.append(" AND t.").append(sortBy).append(' ').append(comparison).append("= :lastValue")
+                .append(" AND (t.").append(sortBy).append(' ').append(comparison).append(" :lastValue")
+                .append(" OR t.id ").append(comparison).append(" :lastId)");
+            parameters.put("lastValue", parseSortValue(sortBy, after.getValue()));
+            parameters.put("lastId", after.getId());
+        }
+        jpql.append(" ORDER BY t.").append(sortBy).append(' ').append(direction)
+            .append(", t.id ").append(direction);
+
+        TypedQuery<Team> query = entityManager.createQuery(jpql.toString(), Team.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Cursor pointing just past the given team under the given sort
+     */
+    public static PageCursor cursorAfter(Team team, String sortBy, boolean ascending) {
+        String value;
+        switch (sortBy) {
+            case "createdAt":
+                value = team.getCreatedAt().toString();
+                break;
+            case "updatedAt":
+                value = team.getUpdatedAt().toString();
+                break;
+            case "name":
+                value = team.getName();
+                break;
+            case "maxMembers":
+                value = String.valueOf(team.getMaxMembers());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
+        }
+        return new PageCursor(sortBy, ascending, value, team.getId());
+    }
+
+    private static Object parseSortValue(String sortBy, String value) {
+        try {
+            switch (sortBy) {
+                case "createdAt":
+                case "updatedAt":
+                    return LocalDateTime.parse(value);
+                case "maxMembers":
+                    return Integer.parseInt(value);
+                default:
+                    return value;
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    /**
+     * Optional conditions on the teams to page through; unset conditions match every team
+     */
+    public static class Filter {
+        private String domain;
+        private Boolean open;
+        private String keyword;
+        private Collection<String> skills;
+        private Long availableFor;
+
+        public Filter domain(String domain) {
+            this.domain = domain;
+            return this;
+        }
+
+        public Filter open(Boolean open) {
+            this.open = open;
+            return this;
+        }
+
+        public Filter keyword(String keyword) {
+            this.keyword = keyword;
+            return this;
+        }
+
+        public Filter requiringAnySkill(Collection<String> skills) {
+            this.skills = skills;
+            return this;
+        }
+
+        /**
+         * Open teams with a free slot that the user is not a member of
+         */
+        public Filter availableFor(Long userId) {
+            this.availableFor = userId;
+            return this;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -24,7 +25,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :email OR u.username = :username")
     Optional<User> findByEmailOrUsername(@Param("email") String email, @Param("username") String username);
     
-    @Query("SELECT u FROM User u WHERE u.id NOT IN (SELECT tm.user.id FROM TeamMember tm WHERE tm.team.id = :teamId)")
+    @Query("SELECT u FROM User u WHERE u.id NOT IN (SELECT m.id FROM Team t JOIN t.members m WHERE t.id = :teamId)")
     List<User> findUsersNotInTeam(@Param("teamId") Long teamId);
     
     @Query("SELECT u FROM User u JOIN u.skills s WHERE s IN :skills")
@@ -38,4 +39,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT DISTINCT u FROM User u JOIN u.skills s JOIN u.interests i WHERE s IN :skills AND i IN :interests")
     List<User> findBySkillsAndInterests(@Param("skills") Set<String> skills, @Param("interests") Set<String> interests);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id NOT IN (SELECT m.id FROM Team t JOIN t.members m)")
+    List<Long> findIdsNotInAnyTeam();
+    
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT s FROM User u JOIN u.skills s WHERE u.id = :userId")
+    List<String> findSkillsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT s FROM User u JOIN u.skills s")
+    List<String> findDistinctSkills();
+    
+    @Query("SELECT DISTINCT i FROM User u JOIN u.interests i")
+    List<String> findDistinctInterests();
+
+    @Query("SELECT s, COUNT(u) FROM User u JOIN u.skills s GROUP BY s")
+    List<Object[]> findSkillCounts();
+
+    @Query("SELECT i, COUNT(u) FROM User u JOIN u.interests i GROUP BY i")
+    List<Object[]> findInterestCounts();
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.hackmate.service;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.InvitationExpiryRepository;
+import com.hackmate.repository.SchedulerLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marks pending invitations past their expiry date as EXPIRED in chunks, so they stop showing up
+ * in invitation lists; accepting an expired invitation is still refused on its own. Only the
+ * instance holding the "invitation-expiry" lease sweeps, and a run stops after max-chunks chunks
+ * so it always finishes well within the lease.
+ */
+@Component
+public class InvitationExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvitationExpirySweeper.class);
+
+    private static final String LEASE = "invitation-expiry";
+
+    @Autowired
+    private InvitationExpiryRepository invitationExpiryRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.invitations.sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.invitations.sweep.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.invitations.sweep.max-chunks:100}")
+    private int maxChunks;
+
+    @Value("${app.invitations.sweep.lease-ms:300000}")
+    private long leaseMs;
+
+    // Unique per process, so a restarted instance does not mistake the old lease for its own
+    private final String owner = UUID.randomUUID().toString();
+
+    private Counter swept;
+    private Timer sweepTimer;
+
+    @PostConstruct
+    public void init() {
+        swept = meterRegistry.counter("hackmate.invitations.expired");
+        sweepTimer = meterRegistry.timer("hackmate.invitations.sweep");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            schedulerLeaseRepository.release(LEASE, owner);
+        } catch (DataAccessException ex) {
+            logger.debug("Could not release the {} lease: {}", LEASE, ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.invitations.sweep.interval-ms:60000}",
+               initialDelayString = "${app.invitations.sweep.initial-delay-ms:30000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!schedulerLeaseRepository.tryAcquire(LEASE, owner, Duration.ofMillis(leaseMs))) {
+                return;
+            }
+            long start = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            int chunks = 0;
+            int expired;
+            do {
+                expired = invitationExpiryRepository.expireChunk(now, chunkSize);
+                total += expired;
+                swept.increment(expired);
+            } while (expired == chunkSize && ++chunks < maxChunks);
+
+            long elapsed = System.nanoTime() - start;
+            sweepTimer.record(Duration.ofNanos(elapsed));
+            if (total > 0) {
+                logger.info("Expired {} invitations in {} ms", total, Duration.ofNanos(elapsed).toMillis());
+            }
+        } catch (DataAccessException ex) {
+            // Chunks already swept stay committed; the next run continues
+            logger.error("Invitation expiry sweep failed", ex);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.hackmate.service;
+
+import com.hackmate.model.Team;
+import com.hackmate.model.TeamInvitation;
+import com.hackmate.model.User;
+import com.hackmate.repository.TeamInvitationRepository;
+import com.hackmate.repository.TeamMembershipRepository;
+import com.hackmate.service.cache.InvalidationChannel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "is this user a member of this team" without loading either entity or the team's member
+ * collection. Holds team id -> sorted member ids and user id -> sorted team ids as primitive arrays,
+ * so a check is a hash lookup and a binary search. Arrays are replaced rather than edited, so reads
+ * take no lock. Teams this instance has not seen are answered with an EXISTS query on the primary key.
+ * All membership changes go through here so the index is updated once the database change commits.
+ * Changes made by other instances arrive as team notices on the {@link InvalidationChannel}; the
+ * team's entry is dropped, so lookups fall back to EXISTS, and reloaded from the database.
+ */
+@Service
+public class MembershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MembershipService.class);
+
+    private static final long[] NONE = new long[0];
+
+    @Autowired
+    private TeamMembershipRepository teamMembershipRepository;
+
+    @Autowired
+    private InvalidationChannel invalidationChannel;
+
+    @Autowired
+    private TeamInvitationRepository invitationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, long[]> membersByTeam = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> teamsByUser = new ConcurrentHashMap<>();
+
+    // Bumped by every local change, so a reload that overlaps one is not installed
+    private long changes;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // This instance's own joins and leaves are applied as they happen, so only other instances' are reloaded
+        invalidationChannel.subscribeRemote(new InvalidationChannel.Listener() {
+            @Override
+            public void invalidate(long teamId) {
+                reload(teamId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                load();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Map<Long, List<Long>> members = new HashMap<>();
+        Map<Long, List<Long>> teams = new HashMap<>();
+        teamMembershipRepository.forEachMembership((teamId, userId) -> {
+            members.computeIfAbsent(teamId, id -> new ArrayList<>()).add(userId);
+            teams.computeIfAbsent(userId, id -> new ArrayList<>()).add(teamId);
+        });
+        changes++;
+        membersByTeam.clear();
+        teamsByUser.clear();
+        members.forEach((teamId, userIds) -> membersByTeam.put(teamId, sortedArray(userIds)));
+        teams.forEach((userId, teamIds) -> teamsByUser.put(userId, sortedArray(teamIds)));
+        logger.info("Membership index loaded for {} teams and {} users", membersByTeam.size(), teamsByUser.size());
+    }
+
+    public boolean isMember(Long teamId, Long userId) {
+        if (teamId == null || userId == null) {
+            return false;
+        }
+        long[] members = membersByTeam.get(teamId);
+        if (members != null) {
+            return Arrays.binarySearch(members, userId) >= 0;
+        }
+        return teamMembershipRepository.exists(teamId, userId);
+    }
+
+    /**
+     * Ids of the teams the user belongs to, in ascending order
+     */
+    public List<Long> teamIdsOf(Long userId) {
+        long[] teams = teamsByUser.get(userId);
+        if (teams == null) {
+            return teamMembershipRepository.findTeamIdsByUserId(userId);
+        }
+        List<Long> teamIds = new ArrayList<>(teams.length);
+        for (long teamId : teams) {
+            teamIds.add(teamId);
+        }
+        return teamIds;
+    }
+
+    /**
+     * Add the user to the team if there is a free slot, see {@link TeamMembershipRepository#join}
+     */
+    public TeamMembershipRepository.JoinResult join(Team team, User user) {
+        TeamMembershipRepository.JoinResult result = teamMembershipRepository.join(team, user);
+        if (result != TeamMembershipRepository.JoinResult.FULL) {
+            added(team.getId(), user.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Join the invitation's team and mark the invitation accepted in one transaction, so a failed
+     * status update cannot leave a member with a pending invitation. The invitation is left as it
+     * is unless the user joined.
+     */
+    public TeamMembershipRepository.JoinResult acceptInvitation(TeamInvitation invitation, User user) {
+        Team team = invitation.getTeam();
+        TeamMembershipRepository.JoinResult result = transactionTemplate.execute(status -> {
+            TeamMembershipRepository.JoinResult joined = teamMembershipRepository.join(team, user);
+            if (joined != TeamMembershipRepository.JoinResult.JOINED) {
+                status.setRollbackOnly();
+                return joined;
+            }
+            // Email and phone invitations name no invitee until accepted
+            if (invitation.getInvitee() == null) {
+                invitation.setInvitee(user);
+            }
+            invitation.setStatus(TeamInvitation.InvitationStatus.ACCEPTED);
+            invitation.setUpdatedAt(LocalDateTime.now());
+            invitationRepository.save(invitation);
+            return joined;
+        });
+        if (result != TeamMembershipRepository.JoinResult.FULL) {
+            added(team.getId(), user.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Remove the user from the team, returning false if they were not a member
+     */
+    public boolean leave(Team team, User user) {
+        boolean left = teamMembershipRepository.leave(team, user);
+        removed(team.getId(), user.getId());
+        return left;
+    }
+
+    /**
+     * Remove the user from every team ahead of deleting their account
+     */
+    public void leaveAll(Long userId) {
+        teamMembershipRepository.leaveAll(userId);
+        synchronized (this) {
+            changes++;
+            long[] teams = teamsByUser.remove(userId);
+            if (teams != null) {
+                for (long teamId : teams) {
+                    membersByTeam.computeIfPresent(teamId, (id, members) -> without(members, userId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a newly saved team and its creator, its first member
+     */
+    public void teamCreated(Team team) {
+        synchronized (this) {
+            membersByTeam.put(team.getId(), NONE);
+        }
+        added(team.getId(), team.getCreator().getId());
+    }
+
+    public synchronized void teamDeleted(Long teamId) {
+        changes++;
+        long[] members = membersByTeam.remove(teamId);
+        if (members != null) {
+            for (long userId : members) {
+                teamsByUser.computeIfPresent(userId, (id, teams) -> without(teams, teamId));
+            }
+        }
+    }
+
+    /**
+     * Replace the team's members with the ones in the database. The entry stays dropped if the
+     * query fails or a local change overlaps it.
+     * Called for other instances' notices and after members are written outside of join.
+     */
+    public void reload(long teamId) {
+        long generation;
+        synchronized (this) {
+            teamDeleted(teamId);
+            generation = changes;
+        }
+        List<Long> userIds;
+        try {
+            userIds = teamMembershipRepository.findUserIdsByTeamId(teamId);
+        } catch (DataAccessException ex) {
+            logger.warn("Could not reload members of team {}: {}", teamId, ex.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (generation != changes) {
+                return;
+            }
+            membersByTeam.put(teamId, sortedArray(userIds));
+            for (Long userId : userIds) {
+                teamsByUser.computeIfPresent(userId, (id, teams) -> with(teams, teamId));
+            }
+        }
+    }
+
+    private synchronized void added(Long teamId, Long userId) {
+        changes++;
+        // Only extend teams already held in full; others keep falling back to the database
+        membersByTeam.computeIfPresent(teamId, (id, members) -> with(members, userId));
+        teamsByUser.computeIfPresent(userId, (id, teams) -> with(teams, teamId));
+    }
+
+    private synchronized void removed(Long teamId, Long userId) {
+        changes++;
+        membersByTeam.computeIfPresent(teamId, (id, members) -> without(members, userId));
+        teamsByUser.computeIfPresent(userId, (id, teams) -> without(teams, teamId));
+    }
+
+    private static long[] with(long[] ids, long id) {
+        int i = Arrays.binarySearch(ids, id);
+        if (i >= 0) {
+            return ids;
+        }
+        int at = -i - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int i = Arrays.binarySearch(ids, id);
+        if (i < 0) {
+            return ids;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, i);
+        System.arraycopy(ids, i + 1, copy, i, ids.length - i - 1);
+        return copy;
+    }
+
+    private static long[] sortedArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+}
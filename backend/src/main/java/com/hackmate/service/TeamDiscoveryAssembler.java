@@ -0,0 +1,82 @@
+package com.hackmate.service;
+
+import com.hackmate.dto.TeamDiscoveryDTO;
+import com.hackmate.dto.TeamMemberDTO;
+import com.hackmate.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Builds discovery DTOs for a page of teams from three projection queries (teams with their
+ * creator, required skills, members) whatever the page size, instead of loading Team entities and
+ * walking their lazy members one team at a time.
+ */
+@Component
+public class TeamDiscoveryAssembler {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    /**
+     * DTOs for the given team ids in the same order; ids of teams that no longer exist are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<TeamDiscoveryDTO> assemble(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> ids = new HashSet<>(teamIds);
+
+        Map<Long, TeamDiscoveryDTO> byId = new HashMap<>(ids.size() * 2);
+        Map<Long, Boolean> open = new HashMap<>(ids.size() * 2);
+        Map<Long, Long> leaderIds = new HashMap<>(ids.size() * 2);
+        for (Object[] row : teamRepository.findDiscoveryRowsByIds(ids)) {
+            TeamDiscoveryDTO dto = new TeamDiscoveryDTO();
+            dto.setId((Long) row[0]);
+            dto.setName((String) row[1]);
+            dto.setDescription((String) row[2]);
+            dto.setProjectDomain((String) row[3]);
+            dto.setMaxMembers((Integer) row[4]);
+            dto.setCreatedAt((LocalDateTime) row[6]);
+            dto.setLeaderUsername((String) row[8]);
+            dto.setLeaderName((String) row[9]);
+            dto.setRequiredSkills(new ArrayList<>());
+            dto.setMembers(new ArrayList<>());
+            byId.put(dto.getId(), dto);
+            open.put(dto.getId(), (Boolean) row[5]);
+            leaderIds.put(dto.getId(), (Long) row[7]);
+        }
+
+        for (Object[] row : teamRepository.findRequiredSkillsByTeamIds(ids)) {
+            TeamDiscoveryDTO dto = byId.get((Long) row[0]);
+            if (dto != null) {
+                dto.getRequiredSkills().add((String) row[1]);
+            }
+        }
+
+        for (Object[] row : teamRepository.findMemberRowsByTeamIds(ids)) {
+            Long teamId = (Long) row[0];
+            TeamDiscoveryDTO dto = byId.get(teamId);
+            if (dto != null) {
+                Long userId = (Long) row[1];
+                dto.getMembers().add(new TeamMemberDTO(userId, (String) row[2], (String) row[3], (String) row[4],
+                        userId.equals(leaderIds.get(teamId))));
+            }
+        }
+
+        List<TeamDiscoveryDTO> dtos = new ArrayList<>(byId.size());
+        for (Long teamId : teamIds) {
+            TeamDiscoveryDTO dto = byId.get(teamId);
+            if (dto != null) {
+                dto.setCurrentMembers(dto.getMembers().size());
+                dto.setStatus(TeamDiscoveryDTO.statusOf(open.get(teamId), dto.getCurrentMembers(), dto.getMaxMembers()));
+                dtos.add(dto);
+            }
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,142 @@
+package com.hackmate.service;
+
+import com.hackmate.dto.FormationProposal;
+import com.hackmate.model.Team;
+import com.hackmate.model.TeamInvitation;
+import com.hackmate.model.User;
+import com.hackmate.repository.FormationProposalRepository;
+import com.hackmate.repository.TeamInvitationRepository;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.UserRepository;
+import com.hackmate.service.matching.FormationPlan;
+import com.hackmate.service.matching.TeamFormationSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Organizer side of team formation: solves an assignment, keeps it as a proposal for review
+ * and turns an accepted proposal into direct invitations. Proposals live in the database, so
+ * any instance can serve or commit them.
+ */
+@Service
+public class TeamFormationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamFormationService.class);
+
+    @Autowired
+    private TeamFormationSolver teamFormationSolver;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamInvitationRepository invitationRepository;
+
+    @Autowired
+    private FormationProposalRepository formationProposalRepository;
+
+    @Value("${app.matching.formation.proposal-ttl-minutes:60}")
+    private long proposalTtlMinutes;
+
+    @Value("${app.matching.formation.commit-batch-size:500}")
+    private int commitBatchSize;
+
+    /**
+     * Solve the assignment for all users without a team and keep it until committed or expired
+     */
+    public FormationProposal propose(Long organizerId, boolean fillRemaining) {
+        FormationPlan plan = teamFormationSolver.plan(fillRemaining);
+        LocalDateTime now = LocalDateTime.now();
+        formationProposalRepository.deleteExpired(now);
+        FormationProposal proposal = new FormationProposal(
+                UUID.randomUUID().toString(), organizerId, now, now.plusMinutes(proposalTtlMinutes), plan);
+        formationProposalRepository.save(proposal, commitBatchSize);
+        return proposal;
+    }
+
+    public FormationProposal getProposal(String proposalId) {
+        FormationProposal proposal = formationProposalRepository.find(proposalId, LocalDateTime.now());
+        if (proposal == null) {
+            throw new RuntimeException("Proposal not found");
+        }
+        return proposal;
+    }
+
+    /**
+     * Send a direct invitation for every placement of the proposal, skipping users who already
+     * have a pending invitation to the same team. Returns the number of invitations created.
+     * Fails with IllegalStateException if a placed user has joined a team or a placed team no
+     * longer has room for its placements since the proposal was made.
+     */
+    @Transactional
+    public int commit(String proposalId, Long organizerId) {
+        FormationProposal proposal = getProposal(proposalId);
+        User inviter = userRepository.findById(organizerId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // One query re-checks every placement against current memberships and team sizes
+        List<Object[]> conflicts = formationProposalRepository.findConflicts(proposalId);
+        if (!conflicts.isEmpty()) {
+            long users = conflicts.stream().filter(row -> "USER".equals(row[0])).count();
+            throw new IllegalStateException("Proposal is out of date: " + users + " placed users are no longer"
+                    + " without a team and " + (conflicts.size() - users) + " teams no longer have room; propose again");
+        }
+        // Claim the proposal; a concurrent commit of it waits here and then finds it gone
+        if (!formationProposalRepository.delete(proposalId)) {
+            throw new RuntimeException("Proposal not found");
+        }
+
+        List<FormationPlan.Placement> placements = proposal.getPlan().getPlacements();
+        Set<Long> teamIds = new HashSet<>();
+        for (FormationPlan.Placement placement : placements) {
+            teamIds.add(placement.getTeamId());
+        }
+
+        // Look up all pending (team, invitee) pairs of the affected teams at once
+        Set<List<Long>> pending = new HashSet<>();
+        if (!teamIds.isEmpty()) {
+            for (Object[] row : invitationRepository.findPendingInviteePairsByTeamIds(teamIds)) {
+                pending.add(List.of((Long) row[0], (Long) row[1]));
+            }
+        }
+
+        List<TeamInvitation> batch = new ArrayList<>(commitBatchSize);
+        int created = 0;
+        for (FormationPlan.Placement placement : placements) {
+            if (!pending.add(List.of(placement.getTeamId(), placement.getUserId()))) {
+                continue;
+            }
+            Team team = teamRepository.getReferenceById(placement.getTeamId());
+            User invitee = userRepository.getReferenceById(placement.getUserId());
+
+            TeamInvitation invitation = new TeamInvitation(team, inviter, invitee);
+            invitation.setStatus(TeamInvitation.InvitationStatus.PENDING);
+            invitation.setInvitationToken(UUID.randomUUID().toString());
+            batch.add(invitation);
+
+            if (batch.size() == commitBatchSize) {
+                invitationRepository.saveAll(batch);
+                created += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            invitationRepository.saveAll(batch);
+            created += batch.size();
+        }
+
+        logger.info("Committed formation proposal {}: {} invitations for {} placements",
+                proposalId, created, placements.size());
+        return created;
+    }
+}
@@ -0,0 +1,237 @@
+package com.hackmate.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads import rows one at a time from a CSV file with a header line or from NDJSON, one JSON
+ * object per line, so a file of any size is never held in memory.
+ * Field names are matched ignoring case and underscores ("full_name" is "fullName"), and list
+ * fields are ';'-separated in CSV and JSON arrays in NDJSON.
+ */
+public class ImportRecordReader implements Closeable {
+
+    public static final String LIST_SEPARATOR = ";";
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+
+    private String[] header;
+    private int lineNumber;
+
+    public ImportRecordReader(InputStream input, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The next row, or null at the end of the input; a row that cannot be parsed comes back with an error
+     */
+    public ImportRecord next() throws IOException {
+        return format == ImportFormat.CSV ? nextCsv() : nextJson();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    static String normalize(String name) {
+        return name.replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private ImportRecord nextJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            return ImportRecord.failed(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            return ImportRecord.failed(lineNumber, "Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            JsonNode value = entry.getValue();
+            if (value.isNull()) {
+                continue;
+            }
+            if (value.isArray()) {
+                StringJoiner joined = new StringJoiner(LIST_SEPARATOR);
+                value.forEach(item -> joined.add(item.asText()));
+                fields.put(normalize(entry.getKey()), joined.toString());
+            } else {
+                fields.put(normalize(entry.getKey()), value.asText());
+            }
+        }
+        return new ImportRecord(lineNumber, fields, null);
+    }
+
+    private ImportRecord nextCsv() throws IOException {
+        if (header == null) {
+            List<String> names = readCsvRow();
+            if (names == null) {
+                return null;
+            }
+            header = new String[names.size()];
+            for (int i = 0; i < names.size(); i++) {
+                // Drop a byte order mark left by spreadsheet exports
+                header[i] = normalize(names.get(i).replace("\uFEFF", ""));
+            }
+        }
+        List<String> values;
+        int startLine;
+        do {
+            startLine = lineNumber + 1;
+            try {
+                values = readCsvRow();
+            } catch (MalformedRowException ex) {
+                return ImportRecord.failed(startLine, ex.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isBlank());
+
+        if (values.size() > header.length) {
+            return ImportRecord.failed(startLine, "Expected " + header.length + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                fields.put(header[i], values.get(i));
+            }
+        }
+        return new ImportRecord(startLine, fields, null);
+    }
+
+    /**
+     * One RFC 4180 row; quoted fields may hold commas, doubled quotes and line breaks
+     */
+    private List<String> readCsvRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRowException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    value.append((char) c);
+                }
+            } else if (c == '"' && value.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    private static class MalformedRowException extends IOException {
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One parsed row and the line it starts on
+     */
+    public static class ImportRecord {
+        private final int line;
+        private final Map<String, String> fields;
+        private final String error;
+
+        ImportRecord(int line, Map<String, String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        static ImportRecord failed(int line, String error) {
+            return new ImportRecord(line, Collections.emptyMap(), error);
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Value of the first of the named fields that is present and not blank
+         */
+        public String get(String... names) {
+            for (String name : names) {
+                String value = fields.get(normalize(name));
+                if (value != null && !value.isBlank()) {
+                    return value.trim();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Distinct non-blank items of a list field, compared ignoring case, in file order
+         */
+        public List<String> getList(String name) {
+            String value = get(name);
+            if (value == null) {
+                return Collections.emptyList();
+            }
+            Map<String, String> items = new LinkedHashMap<>();
+            for (String item : value.split(LIST_SEPARATOR)) {
+                String trimmed = item.trim();
+                if (!trimmed.isEmpty()) {
+                    items.putIfAbsent(trimmed.toLowerCase(Locale.ROOT), trimmed);
+                }
+            }
+            return new ArrayList<>(items.values());
+        }
+    }
+}
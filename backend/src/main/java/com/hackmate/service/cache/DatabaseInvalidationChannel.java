@@ -0,0 +1,143 @@
+package com.hackmate.service.cache;
+
+import com.hackmate.config.SchedulingConfig;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares notices between instances through the team_cache_invalidations table, MySQL having no
+ * LISTEN/NOTIFY: publishing appends a row, and every instance polls for rows past the last id it
+ * has seen. Ids can commit out of order, so each poll re-reads a small window below that id and
+ * skips rows it already delivered, which include the rows this instance inserted itself, as its
+ * listeners heard those at publish time. Rows older than the retention are pruned.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.team-view.channel", havingValue = "database")
+public class DatabaseInvalidationChannel implements InvalidationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInvalidationChannel.class);
+
+    // Ids below the last seen one that are read again in case they committed late
+    private static final int REORDER_WINDOW = 64;
+
+    private static final String INSERT_SQL = "INSERT INTO team_cache_invalidations (team_id) VALUES (?)";
+
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM team_cache_invalidations";
+
+    private static final String POLL_SQL =
+            "SELECT id, team_id FROM team_cache_invalidations WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String PRUNE_SQL = "DELETE FROM team_cache_invalidations WHERE created_at < ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.cache.team-view.poll-batch-size:1000}")
+    private int pollBatchSize;
+
+    @Value("${app.cache.team-view.retention-minutes:60}")
+    private int retentionMinutes;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Listener> remoteListeners = new CopyOnWriteArrayList<>();
+    private final Set<Long> delivered = ConcurrentHashMap.newKeySet();
+
+    private JdbcTemplate jdbcTemplate;
+    private long lastSeenId;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        lastSeenId = maxId != null ? maxId : 0;
+    }
+
+    @Override
+    public void publish(long teamId) {
+        // Local listeners hear it at once so this instance never serves its own stale write
+        for (Listener listener : listeners) {
+            listener.invalidate(teamId);
+        }
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+                statement.setLong(1, teamId);
+                return statement;
+            }, keyHolder);
+            Number id = keyHolder.getKey();
+            if (id != null) {
+                delivered.add(id.longValue());
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Could not publish invalidation of team {}: {}", teamId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void subscribeRemote(Listener listener) {
+        remoteListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.team-view.poll-ms:1000}")
+    public void poll() {
+        List<long[]> rows;
+        long previous;
+        do {
+            previous = lastSeenId;
+            long from = Math.max(0, lastSeenId - REORDER_WINDOW);
+            rows = jdbcTemplate.query(POLL_SQL,
+                    (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) }, from, pollBatchSize);
+            for (long[] row : rows) {
+                if (delivered.add(row[0])) {
+                    deliver(row[1]);
+                }
+                lastSeenId = Math.max(lastSeenId, row[0]);
+            }
+            delivered.removeIf(id -> id <= lastSeenId - REORDER_WINDOW);
+        } while (rows.size() == pollBatchSize && lastSeenId > previous);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.team-view.prune-ms:600000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void prune() {
+        int pruned = jdbcTemplate.update(PRUNE_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        if (pruned > 0) {
+            logger.debug("Pruned {} team cache invalidations", pruned);
+        }
+    }
+
+    private void deliver(long teamId) {
+        for (Listener listener : listeners) {
+            listener.invalidate(teamId);
+        }
+        for (Listener listener : remoteListeners) {
+            listener.invalidate(teamId);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hackmate.service.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers notices to listeners in this process only, synchronously on the publishing thread
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.team-view.channel", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationChannel implements InvalidationChannel {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(long teamId) {
+        for (Listener listener : listeners) {
+            listener.invalidate(teamId);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void subscribeRemote(Listener listener) {
+        // There are no other instances to hear from
+    }
+}
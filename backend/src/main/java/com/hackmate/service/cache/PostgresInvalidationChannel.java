@@ -0,0 +1,152 @@
+package com.hackmate.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shares notices through PostgreSQL LISTEN/NOTIFY. Publishing is a pg_notify on any pooled
+ * connection; a daemon thread holds one connection listening on the channel and hands each
+ * payload to the listeners. Payloads carry the publishing instance's id, so an instance skips the
+ * echo of its own notices, which its listeners heard at publish time. When that connection drops,
+ * notices sent meanwhile are lost, so the listeners are told to drop everything once it is back.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.team-view.channel", havingValue = "postgres")
+public class PostgresInvalidationChannel implements InvalidationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresInvalidationChannel.class);
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.cache.team-view.pg-channel:team_cache}")
+    private String channel;
+
+    @Value("${app.cache.team-view.poll-ms:1000}")
+    private int waitMs;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Listener> remoteListeners = new CopyOnWriteArrayList<>();
+
+    // Prefixed to every payload this instance sends
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private JdbcTemplate jdbcTemplate;
+    private Thread listenerThread;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        listenerThread = new Thread(this::listen, "team-cache-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public void publish(long teamId) {
+        // Local listeners hear it at once so this instance never serves its own stale write
+        for (Listener listener : listeners) {
+            listener.invalidate(teamId);
+        }
+        try {
+            jdbcTemplate.queryForObject(NOTIFY_SQL, Object.class, channel, instanceId + ":" + teamId);
+        } catch (DataAccessException ex) {
+            logger.warn("Could not publish invalidation of team {}: {}", teamId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void subscribeRemote(Listener listener) {
+        remoteListeners.add(listener);
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    for (Listener listener : listeners) {
+                        listener.invalidateAll();
+                    }
+                    for (Listener listener : remoteListeners) {
+                        listener.invalidateAll();
+                    }
+                }
+                reconnecting = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(waitMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Team cache listener connection lost, reconnecting: {}", ex.getMessage());
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator >= 0 && payload.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        try {
+            long teamId = Long.parseLong(payload.substring(separator + 1));
+            for (Listener listener : listeners) {
+                listener.invalidate(teamId);
+            }
+            for (Listener listener : remoteListeners) {
+                listener.invalidate(teamId);
+            }
+        } catch (NumberFormatException ex) {
+            logger.warn("Ignoring team cache notice with payload {}", payload);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hackmate.service.matching;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size batch of candidate users held as primitive projections: an id plus the
+ * dictionary ids of the user's skills and interests, laid out back to back with offsets.
+ * A chunk is filled, scored and cleared again so memory stays bounded by its capacity.
+ */
+public class CandidateChunk {
+
+    private final int capacity;
+    private final long[] ids;
+    private final int[] skillStart;
+    private final int[] interestStart;
+    private int[] skillIds;
+    private int[] interestIds;
+    private int skillCount;
+    private int interestCount;
+    private int size;
+
+    public CandidateChunk(int capacity) {
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.skillStart = new int[capacity + 1];
+        this.interestStart = new int[capacity + 1];
+        this.skillIds = new int[capacity * 4];
+        this.interestIds = new int[capacity * 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    public void clear() {
+        size = 0;
+        skillCount = 0;
+        interestCount = 0;
+    }
+
+    /**
+     * Start a new candidate, subsequent skills and interests belong to it
+     */
+    public void begin(long id) {
+        if (isFull()) {
+            throw new IllegalStateException("Candidate chunk is full");
+        }
+        ids[size] = id;
+        skillStart[size] = skillCount;
+        interestStart[size] = interestCount;
+        size++;
+        skillStart[size] = skillCount;
+        interestStart[size] = interestCount;
+    }
+
+    public void addSkill(int skillId) {
+        if (skillId < 0) {
+            return;
+        }
+        if (skillCount == skillIds.length) {
+            skillIds = Arrays.copyOf(skillIds, skillIds.length * 2);
+        }
+        skillIds[skillCount++] = skillId;
+        skillStart[size] = skillCount;
+    }
+
+    public void addInterest(int interestId) {
+        if (interestId < 0) {
+            return;
+        }
+        if (interestCount == interestIds.length) {
+            interestIds = Arrays.copyOf(interestIds, interestIds.length * 2);
+        }
+        interestIds[interestCount++] = interestId;
+        interestStart[size] = interestCount;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Number of the candidate's skills contained in the given vector
+     */
+    public int countSkillsIn(int index, SkillVector vector) {
+        int count = 0;
+        for (int i = skillStart[index]; i < skillStart[index + 1]; i++) {
+            if (vector.contains(skillIds[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public SkillVector skillVector(int index) {
+        return SkillVector.of(Arrays.copyOfRange(skillIds, skillStart[index], skillStart[index + 1]));
+    }
+
+    public SkillVector interestVector(int index) {
+        return SkillVector.of(Arrays.copyOfRange(interestIds, interestStart[index], interestStart[index + 1]));
+    }
+
+    public boolean hasInterest(int index, int interestId) {
+        for (int i = interestStart[index]; i < interestStart[index + 1]; i++) {
+            if (interestIds[i] == interestId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,321 @@
+package com.hackmate.service.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user cache of ranked team recommendations.
+ * A user's entry is dropped when their own skills or interests change, and marked stale when
+ * a team overlapping them changes. Stale entries are still served while a background
+ * recompute replaces them. Entries are only created by reads, so the cache holds the users
+ * who are actually active; the precompute job refreshes those and never adds more.
+ * A compute that overlaps an invalidation of its user is returned but not stored, and one that
+ * overlaps a team change is stored already stale. Team changes are matched against the entries
+ * on the refresh threads, in batches, rather than on the thread that made the change.
+ */
+@Component
+public class RecommendationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCache.class);
+
+    private static final int VERSION_STRIPES = 1024;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.matching.cache.depth:50}")
+    private int depth;
+
+    // Deepest entry a caller can ask for, whatever limit it passes
+    @Value("${app.matching.cache.max-depth:100}")
+    private int maxDepth;
+
+    @Value("${app.matching.cache.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${app.matching.cache.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${app.matching.cache.active-window-ms:86400000}")
+    private long activeWindowMs;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped for a user's stripe by invalidateUser; striped so the versions take fixed memory
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final AtomicLong teamChanges = new AtomicLong();
+    private final Queue<TeamIndexChangedEvent> pendingTeamChanges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean teamScanScheduled = new AtomicBoolean();
+
+    private ExecutorService refreshExecutor;
+
+    private Counter hits;
+    private Counter staleHits;
+    private Counter misses;
+    private Timer recomputeTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        hits = meterRegistry.counter("hackmate.recommendations.cache", "result", "hit");
+        staleHits = meterRegistry.counter("hackmate.recommendations.cache", "result", "stale");
+        misses = meterRegistry.counter("hackmate.recommendations.cache", "result", "miss");
+        recomputeTimer = meterRegistry.timer("hackmate.recommendations.recompute");
+        Gauge.builder("hackmate.recommendations.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Ranked matches for a user, computing them on a miss and serving stale ones while they refresh
+     */
+    public List<ScoredMatch> get(Long userId, int limit, RecommendationLoader loader) {
+        limit = Math.min(limit, maxDepth);
+        Entry entry = entries.get(userId);
+
+        if (entry == null || limit > entry.depth) {
+            misses.increment();
+            entry = compute(userId, Math.max(limit, depth), loader);
+        } else if (entry.stale) {
+            staleHits.increment();
+            scheduleRefresh(userId, entry, loader);
+        } else {
+            hits.increment();
+        }
+
+        entry.lastAccess = System.nanoTime();
+        List<ScoredMatch> matches = entry.matches;
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Whether the user has an entry read within the active window, i.e. is worth precomputing
+     */
+    public boolean isActive(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null
+                && System.nanoTime() - entry.lastAccess <= TimeUnit.MILLISECONDS.toNanos(activeWindowMs);
+    }
+
+    /**
+     * Replace a cached user's entry with recommendations computed ahead of time, keeping its last
+     * access. Users without an entry are skipped, so precomputing never evicts anyone.
+     * They must have been computed down to {@link #getDepth()}.
+     */
+    public void refresh(Long userId, LoadedRecommendations loaded) {
+        entries.computeIfPresent(userId, (id, current) -> {
+            Entry entry = new Entry(loaded, depth);
+            entry.lastAccess = current.lastAccess;
+            return entry;
+        });
+    }
+
+    /**
+     * Drop a user's entry, e.g. after their skills or interests changed
+     */
+    public void invalidateUser(Long userId) {
+        versions.incrementAndGet(stripe(userId));
+        entries.remove(userId);
+    }
+
+    /**
+     * Queue a team change; entries containing or overlapping the team are marked stale on a refresh thread
+     */
+    @EventListener
+    public void onTeamChanged(TeamIndexChangedEvent event) {
+        teamChanges.incrementAndGet();
+        pendingTeamChanges.add(event);
+        if (teamScanScheduled.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(this::markStale);
+            } catch (RejectedExecutionException ex) {
+                teamScanScheduled.set(false); // Shutting down
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private Entry compute(Long userId, int computeDepth, RecommendationLoader loader) {
+        long version = versions.get(stripe(userId));
+        long teamGeneration = teamChanges.get();
+        long start = System.nanoTime();
+        LoadedRecommendations loaded = loader.load(userId, computeDepth);
+        recomputeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Entry entry = new Entry(loaded, computeDepth);
+        if (teamChanges.get() != teamGeneration) {
+            entry.stale = true; // The scan for that change may already have passed this user
+        }
+        if (versions.get(stripe(userId)) == version) {
+            store(userId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Mark stale every entry that contains or overlaps a team changed since the last scan
+     */
+    private void markStale() {
+        teamScanScheduled.set(false);
+        List<TeamIndexChangedEvent> events = new ArrayList<>();
+        for (TeamIndexChangedEvent event; (event = pendingTeamChanges.poll()) != null; ) {
+            events.add(event);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Entry entry : entries.values()) {
+            if (entry.stale) {
+                continue;
+            }
+            for (TeamIndexChangedEvent event : events) {
+                if (entry.contains(event.getTeamId()) || event.isRelevantTo(entry.userSkills, entry.userInterests)) {
+                    entry.stale = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void scheduleRefresh(Long userId, Entry staleEntry, RecommendationLoader loader) {
+        if (!staleEntry.refreshing.compareAndSet(false, true)) {
+            return; // Someone is already recomputing this user
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                compute(userId, staleEntry.depth, loader);
+            } catch (Exception ex) {
+                logger.warn("Could not refresh recommendations for user {}", userId, ex);
+                staleEntry.refreshing.set(false);
+            }
+        });
+    }
+
+    private static int stripe(Long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 54); // Top 10 bits, one of VERSION_STRIPES
+    }
+
+    private void store(Long userId, Entry entry) {
+        entries.put(userId, entry);
+        if (entries.size() > maxEntries) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess + maxEntries / 10) // Free some headroom so we do not sort on every put
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    /**
+     * Computes the recommendations for one user down to the requested depth
+     */
+    @FunctionalInterface
+    public interface RecommendationLoader {
+        LoadedRecommendations load(Long userId, int depth);
+    }
+
+    /**
+     * Ranked matches together with the user vectors they were computed from
+     */
+    public static class LoadedRecommendations {
+        private final List<ScoredMatch> matches;
+        private final SkillVector userSkills;
+        private final SkillVector userInterests;
+
+        public LoadedRecommendations(List<ScoredMatch> matches, SkillVector userSkills, SkillVector userInterests) {
+            this.matches = matches;
+            this.userSkills = userSkills;
+            this.userInterests = userInterests;
+        }
+
+        public List<ScoredMatch> getMatches() {
+            return matches;
+        }
+
+        public SkillVector getUserSkills() {
+            return userSkills;
+        }
+
+        public SkillVector getUserInterests() {
+            return userInterests;
+        }
+    }
+
+    private static class Entry {
+        final List<ScoredMatch> matches;
+        final SkillVector userSkills;
+        final SkillVector userInterests;
+        final int depth;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile boolean stale;
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(LoadedRecommendations loaded, int depth) {
+            this.matches = List.copyOf(loaded.getMatches());
+            this.userSkills = loaded.getUserSkills();
+            this.userInterests = loaded.getUserInterests();
+            this.depth = depth;
+        }
+
+        boolean contains(long teamId) {
+            for (ScoredMatch match : matches) {
+                if (match.getId() == teamId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.DatabaseClock;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.service.matching.RecommendationCache.LoadedRecommendations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Periodically precomputes team recommendations for users and candidate users for open teams.
+ * The first run covers everyone, later runs only the users and teams updated after the
+ * watermark of the previous run plus the teams those users may now rank differently for.
+ * User recommendations are only recomputed for users active in the {@link RecommendationCache};
+ * the rest are computed when they next ask.
+ */
+@Component
+public class RecommendationPrecomputeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationPrecomputeJob.class);
+
+    // Re-read a little before the watermark so rows written while a run was reading are not missed
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(30);
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private DatabaseClock databaseClock;
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private UserCandidateStream userCandidateStream;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private TeamCandidateSnapshot teamCandidateSnapshot;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.matching.precompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.matching.precompute.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.matching.precompute.team-depth:20}")
+    private int teamDepth;
+
+    private volatile LocalDateTime watermark;
+
+    @Scheduled(fixedDelayString = "${app.matching.precompute.interval-ms:300000}",
+               initialDelayString = "${app.matching.precompute.initial-delay-ms:60000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime since = watermark;
+        long start = System.nanoTime();
+
+        try {
+            // The database clock, which stamps the updated_at columns the watermark is compared with
+            LocalDateTime runStart = databaseClock.now();
+            Set<Long> teamsToScore = new HashSet<>();
+            int users = precomputeUsers(since, teamsToScore);
+
+            Set<Long> openTeams = teamSkillIndex.teamIds();
+            if (since == null) {
+                teamsToScore.addAll(openTeams);
+            } else {
+                teamsToScore.addAll(teamRepository.findOpenTeamIdsUpdatedSince(since));
+            }
+            teamCandidateSnapshot.retainTeams(openTeams);
+            int teams = precomputeTeams(teamsToScore);
+
+            watermark = runStart.minus(WATERMARK_OVERLAP);
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("hackmate.recommendations.precompute")
+                    .tag("mode", since == null ? "full" : "incremental")
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(elapsed));
+            logger.info("Precomputed recommendations for {} users and {} teams in {} ms",
+                    users, teams, Duration.ofNanos(elapsed).toMillis());
+        } catch (Exception ex) {
+            // Keep the old watermark so the next run picks the same changes up again
+            logger.error("Recommendation precompute failed", ex);
+        }
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Recompute the cached team recommendations of every changed active user, collecting the
+     * teams whose candidate lists may be affected by the changes of all changed users
+     */
+    private int precomputeUsers(LocalDateTime since, Set<Long> affectedTeams) {
+        int depth = recommendationCache.getDepth();
+        int[] count = {0};
+
+        Consumer<CandidateChunk> recompute = chunk -> {
+            Set<Long> chunkUsers = new HashSet<>(chunk.size() * 2);
+            for (int i = 0; i < chunk.size(); i++) {
+                long userId = chunk.idAt(i);
+                SkillVector skills = chunk.skillVector(i);
+                SkillVector interests = chunk.interestVector(i);
+
+                if (recommendationCache.isActive(userId)) {
+                    List<ScoredMatch> matches = teamSkillIndex.topMatches(userId, skills, interests, depth);
+                    recommendationCache.refresh(userId, new LoadedRecommendations(matches, skills, interests));
+                    count[0]++;
+                }
+
+                if (since != null) {
+                    teamSkillIndex.collectOverlapping(skills, interests, affectedTeams);
+                    chunkUsers.add(userId);
+                }
+            }
+            if (since != null) {
+                teamCandidateSnapshot.collectTeamsListing(chunkUsers, affectedTeams);
+            }
+        };
+
+        if (since == null) {
+            userCandidateStream.forEachChunk(batchSize, recompute);
+        } else {
+            userCandidateStream.forEachChunkUpdatedSince(since, batchSize, recompute);
+        }
+        return count[0];
+    }
+
+    /**
+     * Score all users against the given teams in a single pass over the candidates
+     */
+    private int precomputeTeams(Set<Long> teamIds) {
+        List<TeamTarget> targets = new ArrayList<>(teamIds.size());
+        for (Long teamId : teamIds) {
+            TeamSkillIndex.IndexedTeam team = teamSkillIndex.find(teamId);
+            if (team != null) {
+                targets.add(new TeamTarget(team, teamDepth));
+            }
+        }
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        userCandidateStream.forEachChunk(batchSize, chunk -> {
+            for (TeamTarget target : targets) {
+                target.scorer.scoreInto(chunk, target.topK);
+            }
+        });
+
+        for (TeamTarget target : targets) {
+            List<ScoredMatch> matches = new ArrayList<>(teamDepth);
+            for (ScoredMatch match : target.topK.toSortedMatches()) {
+                if (matches.size() == teamDepth) {
+                    break;
+                }
+                if (!target.team.hasMember(match.getId())) {
+                    matches.add(match);
+                }
+            }
+            teamCandidateSnapshot.put(target.team.id, matches, teamDepth);
+        }
+        return targets.size();
+    }
+
+    private static class TeamTarget {
+        final TeamSkillIndex.IndexedTeam team;
+        final UserMatchScorer scorer;
+        final TopKCollector topK;
+
+        TeamTarget(TeamSkillIndex.IndexedTeam team, int depth) {
+            this.team = team;
+            this.scorer = new UserMatchScorer(team.requiredSkills, team.domainId);
+            // Members are scored too and filtered afterwards, so leave room for them
+            this.topK = new TopKCollector(depth + team.memberCount);
+        }
+    }
+}
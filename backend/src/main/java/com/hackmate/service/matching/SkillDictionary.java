@@ -0,0 +1,150 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide dictionary mapping normalized skill, interest and domain names to dense int ids.
+ * Names are case-folded and alias-resolved, so "ReactJS" and "react" share one id.
+ */
+@Component
+public class SkillDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillDictionary.class);
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("js", "javascript"),
+            Map.entry("ts", "typescript"),
+            Map.entry("reactjs", "react"),
+            Map.entry("react.js", "react"),
+            Map.entry("vuejs", "vue"),
+            Map.entry("vue.js", "vue"),
+            Map.entry("node", "node.js"),
+            Map.entry("nodejs", "node.js"),
+            Map.entry("golang", "go"),
+            Map.entry("k8s", "kubernetes"),
+            Map.entry("postgres", "postgresql"),
+            Map.entry("py", "python"),
+            Map.entry("ml", "machine learning"),
+            Map.entry("ai", "artificial intelligence"),
+            Map.entry("ai/ml", "artificial intelligence"),
+            Map.entry("springboot", "spring boot"),
+            Map.entry("c sharp", "c#"),
+            Map.entry("csharp", "c#"),
+            Map.entry("web dev", "web development")
+    );
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+
+    // Raw spellings seen so far, so repeated lookups skip normalization entirely
+    private final Map<String, Integer> idsByRawName = new ConcurrentHashMap<>();
+
+    private final List<String> names = new CopyOnWriteArrayList<>();
+
+    /**
+     * Seed the dictionary from every skill, interest and domain stored in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional(readOnly = true)
+    public void load() {
+        userRepository.findDistinctSkills().forEach(this::idOf);
+        userRepository.findDistinctInterests().forEach(this::idOf);
+        teamRepository.findDistinctRequiredSkills().forEach(this::idOf);
+        teamRepository.findDistinctProjectDomains().forEach(this::idOf);
+        logger.info("Skill dictionary loaded with {} entries", names.size());
+    }
+
+    /**
+     * Case-fold, collapse whitespace and resolve aliases
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return "";
+        }
+        String name = raw.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return ALIASES.getOrDefault(name, name);
+    }
+
+    /**
+     * Id for a name, assigning the next free id the first time a name is seen.
+     * Returns -1 for blank names.
+     */
+    public int idOf(String raw) {
+        if (raw == null) {
+            return -1;
+        }
+        Integer cached = idsByRawName.get(raw);
+        if (cached != null) {
+            return cached;
+        }
+        String name = normalize(raw);
+        if (name.isEmpty()) {
+            return -1;
+        }
+        int id = idsByName.computeIfAbsent(name, key -> {
+            synchronized (names) {
+                names.add(key);
+                return names.size() - 1;
+            }
+        });
+        idsByRawName.putIfAbsent(raw, id);
+        return id;
+    }
+
+    /**
+     * Id of a name already in the dictionary, or -1. Unlike idOf this never assigns an id,
+     * so it is safe for arbitrary search input.
+     */
+    public int find(String raw) {
+        if (raw == null) {
+            return -1;
+        }
+        Integer cached = idsByRawName.get(raw);
+        if (cached != null) {
+            return cached;
+        }
+        return idsByName.getOrDefault(normalize(raw), -1);
+    }
+
+    public String nameOf(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public SkillVector vectorOf(Collection<String> rawNames) {
+        if (rawNames == null || rawNames.isEmpty()) {
+            return SkillVector.EMPTY;
+        }
+        int[] ids = new int[rawNames.size()];
+        int n = 0;
+        for (String raw : rawNames) {
+            int id = idOf(raw);
+            if (id >= 0) {
+                ids[n++] = id;
+            }
+        }
+        return SkillVector.of(Arrays.copyOf(ids, n));
+    }
+}
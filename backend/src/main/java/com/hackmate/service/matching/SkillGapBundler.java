@@ -0,0 +1,136 @@
+package com.hackmate.service.matching;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Finds small groups of users that together cover a team's skill gap.
+ * Each bundle is a greedy set cover over the gap bitset, evaluated lazily (CELF): a candidate's
+ * gain can only shrink as the bundle grows, so its cached gain is re-computed only when it
+ * reaches the top of the queue.
+ */
+@Component
+public class SkillGapBundler {
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private UserCandidateStream userCandidateStream;
+
+    @Value("${app.matching.gap.chunk-size:4096}")
+    private int chunkSize;
+
+    /**
+     * Up to bundleCount disjoint bundles of at most maxSize users each, best coverage first.
+     * Returns an empty list when the team is not open or has no gap.
+     */
+    public List<GapBundle> bundles(Long teamId, int bundleCount, int maxSize) {
+        SkillVector gap = teamSkillIndex.skillGap(teamId);
+        if (gap == null || gap.isEmpty() || bundleCount <= 0 || maxSize <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Keep only candidates covering part of the gap, reduced to the part they cover
+        List<Long> candidateIds = new ArrayList<>();
+        List<SkillVector> candidateCover = new ArrayList<>();
+        userCandidateStream.forEachChunkNotInTeam(teamId, chunkSize, chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.countSkillsIn(i, gap) > 0) {
+                    candidateIds.add(chunk.idAt(i));
+                    candidateCover.add(chunk.skillVector(i).and(gap));
+                }
+            }
+        });
+
+        boolean[] used = new boolean[candidateIds.size()];
+        List<GapBundle> bundles = new ArrayList<>(bundleCount);
+        for (int b = 0; b < bundleCount; b++) {
+            GapBundle bundle = greedyCover(gap, candidateIds, candidateCover, used, maxSize);
+            if (bundle == null) {
+                break;
+            }
+            bundles.add(bundle);
+        }
+        return bundles;
+    }
+
+    private GapBundle greedyCover(SkillVector gap, List<Long> candidateIds, List<SkillVector> cover,
+                                  boolean[] used, int maxSize) {
+        int n = candidateIds.size();
+        int[] gain = new int[n];
+        int[] evaluatedAt = new int[n];
+        // Largest gain first, lower id on ties
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, n), (a, b) -> {
+            int byGain = Integer.compare(gain[b], gain[a]);
+            return byGain != 0 ? byGain : Long.compare(candidateIds.get(a), candidateIds.get(b));
+        });
+        for (int c = 0; c < n; c++) {
+            if (!used[c]) {
+                gain[c] = cover.get(c).cardinality();
+                queue.add(c);
+            }
+        }
+
+        SkillVector remaining = gap;
+        List<Integer> picked = new ArrayList<>(maxSize);
+        int round = 0;
+        while (picked.size() < maxSize && !remaining.isEmpty() && !queue.isEmpty()) {
+            int c = queue.poll();
+            if (evaluatedAt[c] != round) {
+                gain[c] = cover.get(c).intersectionCount(remaining);
+                evaluatedAt[c] = round;
+                if (gain[c] > 0) {
+                    queue.add(c);
+                }
+                continue;
+            }
+            if (gain[c] == 0) {
+                break;
+            }
+            picked.add(c);
+            remaining = remaining.andNot(cover.get(c));
+            round++;
+        }
+
+        if (picked.isEmpty()) {
+            return null;
+        }
+        List<Long> userIds = new ArrayList<>(picked.size());
+        for (int c : picked) {
+            used[c] = true;
+            userIds.add(candidateIds.get(c));
+        }
+        return new GapBundle(userIds, gap.andNot(remaining), remaining);
+    }
+
+    /**
+     * Users proposed together and the part of the gap they do and do not cover
+     */
+    public static class GapBundle {
+        private final List<Long> userIds;
+        private final SkillVector covered;
+        private final SkillVector uncovered;
+
+        GapBundle(List<Long> userIds, SkillVector covered, SkillVector uncovered) {
+            this.userIds = userIds;
+            this.covered = covered;
+            this.uncovered = uncovered;
+        }
+
+        public List<Long> getUserIds() {
+            return userIds;
+        }
+
+        public SkillVector getCovered() {
+            return covered;
+        }
+
+        public SkillVector getUncovered() {
+            return uncovered;
+        }
+    }
+}
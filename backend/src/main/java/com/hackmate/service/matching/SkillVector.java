@@ -0,0 +1,141 @@
+package com.hackmate.service.matching;
+
+import java.util.Arrays;
+
+/**
+ * Immutable bitset of dictionary ids. Overlap between two vectors is a popcount over
+ * their words, so comparing a user with a team allocates nothing.
+ */
+public final class SkillVector {
+
+    public static final SkillVector EMPTY = new SkillVector(new long[0]);
+
+    private final long[] words;
+    private final int cardinality;
+
+    private SkillVector(long[] words) {
+        this.words = words;
+        int bits = 0;
+        for (long word : words) {
+            bits += Long.bitCount(word);
+        }
+        this.cardinality = bits;
+    }
+
+    public static SkillVector of(int... ids) {
+        if (ids.length == 0) {
+            return EMPTY;
+        }
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int id : ids) {
+            words[id >>> 6] |= 1L << id;
+        }
+        return new SkillVector(words);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * Number of ids present in both vectors
+     */
+    public int intersectionCount(SkillVector other) {
+        int n = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of ids present in this vector but not in the other one
+     */
+    public int andNotCount(SkillVector other) {
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            long otherWord = i < other.words.length ? other.words[i] : 0L;
+            count += Long.bitCount(words[i] & ~otherWord);
+        }
+        return count;
+    }
+
+    public SkillVector or(SkillVector other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] result = Arrays.copyOf(longer, longer.length);
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return new SkillVector(result);
+    }
+
+    public SkillVector and(SkillVector other) {
+        long[] result = Arrays.copyOf(words, Math.min(words.length, other.words.length));
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= other.words[i];
+        }
+        return new SkillVector(result);
+    }
+
+    public SkillVector andNot(SkillVector other) {
+        long[] result = Arrays.copyOf(words, words.length);
+        for (int i = 0; i < result.length && i < other.words.length; i++) {
+            result[i] &= ~other.words[i];
+        }
+        return new SkillVector(result);
+    }
+
+    /**
+     * Ids set in this vector, ascending
+     */
+    public int[] toArray() {
+        int[] ids = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SkillVector)) return false;
+        SkillVector other = (SkillVector) o;
+        int n = Math.max(words.length, other.words.length);
+        for (int i = 0; i < n; i++) {
+            long a = i < words.length ? words[i] : 0L;
+            long b = i < other.words.length ? other.words[i] : 0L;
+            if (a != b) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int last = words.length;
+        while (last > 0 && words[last - 1] == 0L) {
+            last--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, last));
+    }
+}
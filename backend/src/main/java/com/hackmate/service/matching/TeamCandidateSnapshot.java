@@ -0,0 +1,94 @@
+package com.hackmate.service.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed candidate users per open team, written by {@link RecommendationPrecomputeJob}.
+ * A team's entry is dropped as soon as the team changes so it is scored live until the next run.
+ */
+@Component
+public class TeamCandidateSnapshot {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        hits = meterRegistry.counter("hackmate.recommendations.snapshot", "result", "hit");
+        misses = meterRegistry.counter("hackmate.recommendations.snapshot", "result", "miss");
+        Gauge.builder("hackmate.recommendations.snapshot.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Precomputed matches for a team, or null when the team has to be scored live
+     */
+    public List<ScoredMatch> get(Long teamId, int limit) {
+        Entry entry = entries.get(teamId);
+        if (entry == null || limit > entry.depth) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.matches.size() > limit ? entry.matches.subList(0, limit) : entry.matches;
+    }
+
+    public void put(Long teamId, List<ScoredMatch> matches, int depth) {
+        entries.put(teamId, new Entry(List.copyOf(matches), depth));
+    }
+
+    /**
+     * Drop entries of teams that are no longer open
+     */
+    public void retainTeams(Set<Long> teamIds) {
+        entries.keySet().retainAll(teamIds);
+    }
+
+    /**
+     * Add every team whose precomputed list contains one of the users
+     */
+    public void collectTeamsListing(Set<Long> userIds, Set<Long> into) {
+        for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+            for (ScoredMatch match : entry.getValue().matches) {
+                if (userIds.contains(match.getId())) {
+                    into.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onTeamChanged(TeamIndexChangedEvent event) {
+        entries.remove(event.getTeamId());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        final List<ScoredMatch> matches;
+        final int depth;
+
+        Entry(List<ScoredMatch> matches, int depth) {
+            this.matches = matches;
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Assigns every participant without a team to an open team with free slots, maximizing the
+ * number of (team, required skill) pairs covered by at least one member.
+ * Coverage is submodular, so a lazy greedy pass gets close to the optimum and a time-boxed
+ * local search of moves and swaps between teams improves on it.
+ */
+@Component
+public class TeamFormationSolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamFormationSolver.class);
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private UserCandidateStream userCandidateStream;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.matching.formation.time-budget-ms:3000}")
+    private long timeBudgetMillis;
+
+    @Value("${app.matching.formation.neighbour-teams:64}")
+    private int neighbourTeams;
+
+    @Value("${app.matching.formation.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Build the problem from the open teams in the index and the users without a team, then solve it
+     */
+    public FormationPlan plan(boolean fillRemaining) {
+        long start = System.currentTimeMillis();
+
+        List<TeamSkillIndex.IndexedTeam> openTeams = new ArrayList<>();
+        for (Long teamId : teamSkillIndex.teamIds()) {
+            TeamSkillIndex.IndexedTeam team = teamSkillIndex.find(teamId);
+            if (team != null && team.acceptsMembers()) {
+                openTeams.add(team);
+            }
+        }
+
+        List<Long> unassignedIds = userRepository.findIdsNotInAnyTeam();
+        Map<Long, Integer> userIndex = new HashMap<>(unassignedIds.size() * 2);
+        for (Long userId : unassignedIds) {
+            userIndex.put(userId, userIndex.size());
+        }
+
+        Problem problem = new Problem(openTeams.size(), unassignedIds.size());
+        for (int t = 0; t < openTeams.size(); t++) {
+            TeamSkillIndex.IndexedTeam team = openTeams.get(t);
+            problem.teamIds[t] = team.id;
+            problem.required[t] = team.requiredSkills;
+            // Current members are never moved, only what they cover of the requirements matters
+            problem.memberSkills[t] = team.requiredSkills.andNot(team.skillGap);
+            problem.freeSlots[t] = team.maxMembers - team.memberCount;
+            problem.domainIds[t] = team.domainId;
+        }
+        for (int u = 0; u < unassignedIds.size(); u++) {
+            problem.userIds[u] = unassignedIds.get(u);
+            problem.skills[u] = SkillVector.EMPTY;
+            problem.interests[u] = SkillVector.EMPTY;
+        }
+
+        userCandidateStream.forEachChunk(batchSize, chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                long userId = chunk.idAt(i);
+                Integer u = userIndex.get(userId);
+                if (u != null) {
+                    problem.skills[u] = chunk.skillVector(i);
+                    problem.interests[u] = chunk.interestVector(i);
+                }
+            }
+        });
+
+        FormationPlan plan = solve(problem, fillRemaining, start + timeBudgetMillis);
+        logger.info("Team formation for {} users over {} teams: coverage {} -> {} of {} in {} ms",
+                problem.userCount, problem.teamCount, plan.getCoverageBefore(), plan.getCoverageAfter(),
+                plan.getRequiredTotal(), System.currentTimeMillis() - start);
+        return plan;
+    }
+
+    FormationPlan solve(Problem problem, boolean fillRemaining, long deadline) {
+        return new Solver(problem, neighbourTeams, deadline).run(fillRemaining);
+    }
+
+    /**
+     * Dense, index based view of the teams and users taking part in one formation run
+     */
+    static class Problem {
+        final int teamCount;
+        final int userCount;
+        final long[] teamIds;
+        final SkillVector[] required;
+        final SkillVector[] memberSkills;
+        final int[] freeSlots;
+        final int[] domainIds;
+        final long[] userIds;
+        final SkillVector[] skills;
+        final SkillVector[] interests;
+
+        Problem(int teamCount, int userCount) {
+            this.teamCount = teamCount;
+            this.userCount = userCount;
+            this.teamIds = new long[teamCount];
+            this.required = new SkillVector[teamCount];
+            this.memberSkills = new SkillVector[teamCount];
+            this.freeSlots = new int[teamCount];
+            this.domainIds = new int[teamCount];
+            this.userIds = new long[userCount];
+            this.skills = new SkillVector[userCount];
+            this.interests = new SkillVector[userCount];
+        }
+    }
+
+    private static class Solver {
+        private final Problem problem;
+        private final int neighbourTeams;
+        private final long deadline;
+
+        // skill id -> teams requiring it, domain id -> teams working in it
+        private final Map<Integer, int[]> skillPostings = new HashMap<>();
+        private final Map<Integer, int[]> domainPostings = new HashMap<>();
+
+        private final SkillVector[] missing;
+        private final int[] free;
+        private final int[][] assigned;
+        private final int[] assignedCount;
+        private final int[] userTeam;
+        private final int[] seen;
+        private int stamp;
+
+        Solver(Problem problem, int neighbourTeams, long deadline) {
+            this.problem = problem;
+            this.neighbourTeams = neighbourTeams;
+            this.deadline = deadline;
+            this.missing = new SkillVector[problem.teamCount];
+            this.free = problem.freeSlots.clone();
+            this.assigned = new int[problem.teamCount][];
+            this.assignedCount = new int[problem.teamCount];
+            this.userTeam = new int[problem.userCount];
+            this.seen = new int[problem.teamCount];
+            Arrays.fill(userTeam, -1);
+
+            Map<Integer, List<Integer>> skillTeams = new HashMap<>();
+            Map<Integer, List<Integer>> domainTeams = new HashMap<>();
+            for (int t = 0; t < problem.teamCount; t++) {
+                missing[t] = problem.required[t].andNot(problem.memberSkills[t]);
+                assigned[t] = new int[Math.max(0, free[t])];
+                for (int skill : problem.required[t].toArray()) {
+                    skillTeams.computeIfAbsent(skill, key -> new ArrayList<>()).add(t);
+                }
+                if (problem.domainIds[t] >= 0) {
+                    domainTeams.computeIfAbsent(problem.domainIds[t], key -> new ArrayList<>()).add(t);
+                }
+            }
+            skillTeams.forEach((skill, teams) -> skillPostings.put(skill, toArray(teams)));
+            domainTeams.forEach((domain, teams) -> domainPostings.put(domain, toArray(teams)));
+        }
+
+        FormationPlan run(boolean fillRemaining) {
+            int coverageBefore = 0;
+            int requiredTotal = 0;
+            for (int t = 0; t < problem.teamCount; t++) {
+                requiredTotal += problem.required[t].cardinality();
+                coverageBefore += problem.required[t].cardinality() - missing[t].cardinality();
+            }
+
+            List<Integer> leftovers = greedy();
+            int improvements = localSearch();
+            int filled = fillRemaining ? fill(leftovers) : 0;
+
+            int coverageAfter = 0;
+            for (int t = 0; t < problem.teamCount; t++) {
+                coverageAfter += problem.required[t].intersectionCount(unionOf(t, -1, -1));
+            }
+
+            List<FormationPlan.Placement> placements = new ArrayList<>();
+            int unplaced = 0;
+            for (int u = 0; u < problem.userCount; u++) {
+                if (userTeam[u] >= 0) {
+                    placements.add(new FormationPlan.Placement(problem.teamIds[userTeam[u]], problem.userIds[u]));
+                } else {
+                    unplaced++;
+                }
+            }
+            return new FormationPlan(placements, unplaced, coverageBefore, coverageAfter, requiredTotal,
+                    improvements, filled);
+        }
+
+        /**
+         * Lazy greedy: users are popped by their last known best gain, which can only shrink as
+         * teams get covered and fill up, so a re-evaluated gain that still beats the next
+         * bound in the queue is the true best move
+         */
+        private List<Integer> greedy() {
+            int[] bound = new int[problem.userCount];
+            PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, problem.userCount),
+                    (a, b) -> Integer.compare(bound[b], bound[a]));
+            for (int u = 0; u < problem.userCount; u++) {
+                bound[u] = problem.skills[u].cardinality();
+                queue.add(u);
+            }
+
+            List<Integer> leftovers = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                long best = bestTeam(u);
+                int team = (int) (best >>> 32);
+                int gain = (int) best;
+                if (team < 0 || gain == 0) {
+                    leftovers.add(u);
+                } else if (!queue.isEmpty() && gain < bound[queue.peek()]) {
+                    bound[u] = gain;
+                    queue.add(u);
+                } else {
+                    assign(u, team);
+                }
+            }
+            return leftovers;
+        }
+
+        /**
+         * Best team for a user packed as (team index << 32 | gain), preferring teams in one of
+         * the user's domains and then the team with the most free slots on equal gain
+         */
+        private long bestTeam(int u) {
+            SkillVector skills = problem.skills[u];
+            int bestTeam = -1;
+            int bestGain = 0;
+            boolean bestDomain = false;
+            stamp++;
+            for (int skill : skills.toArray()) {
+                int[] teams = skillPostings.get(skill);
+                if (teams == null) {
+                    continue;
+                }
+                for (int t : teams) {
+                    if (seen[t] == stamp || free[t] <= 0) {
+                        continue;
+                    }
+                    seen[t] = stamp;
+                    int gain = missing[t].intersectionCount(skills);
+                    if (gain == 0) {
+                        continue;
+                    }
+                    boolean domain = problem.interests[u].contains(problem.domainIds[t]);
+                    if (gain > bestGain
+                            || (gain == bestGain && domain && !bestDomain)
+                            || (gain == bestGain && domain == bestDomain && free[t] > free[bestTeam])) {
+                        bestTeam = t;
+                        bestGain = gain;
+                        bestDomain = domain;
+                    }
+                }
+            }
+            return ((long) bestTeam << 32) | bestGain;
+        }
+
+        /**
+         * Move a user to a team with a free slot or swap two placed users whenever that raises
+         * total coverage, until a full pass finds nothing or the time budget is spent
+         */
+        private int localSearch() {
+            int improvements = 0;
+            boolean improved = true;
+            Random random = new Random(problem.userCount * 31L + problem.teamCount);
+            int[] order = new int[problem.userCount];
+            for (int u = 0; u < order.length; u++) {
+                order[u] = u;
+            }
+
+            while (improved && System.currentTimeMillis() < deadline) {
+                improved = false;
+                shuffle(order, random);
+                for (int u : order) {
+                    if (userTeam[u] < 0) {
+                        continue;
+                    }
+                    if ((u & 63) == 0 && System.currentTimeMillis() >= deadline) {
+                        return improvements;
+                    }
+                    if (improveUser(u)) {
+                        improvements++;
+                        improved = true;
+                    }
+                }
+            }
+            return improvements;
+        }
+
+        private boolean improveUser(int a) {
+            int teamA = userTeam[a];
+            int coverageA = coverage(teamA, -1, -1);
+            int coverageWithoutA = coverage(teamA, a, -1);
+            int checked = 0;
+            stamp++;
+            seen[teamA] = stamp;
+
+            for (int skill : problem.skills[a].toArray()) {
+                int[] teams = skillPostings.get(skill);
+                if (teams == null) {
+                    continue;
+                }
+                for (int teamB : teams) {
+                    if (seen[teamB] == stamp) {
+                        continue;
+                    }
+                    seen[teamB] = stamp;
+                    if (++checked > neighbourTeams) {
+                        return false;
+                    }
+                    int coverageB = coverage(teamB, -1, -1);
+
+                    if (free[teamB] > 0) {
+                        int delta = coverageWithoutA + coverage(teamB, -1, a) - coverageA - coverageB;
+                        if (delta > 0) {
+                            unassign(a);
+                            assign(a, teamB);
+                            return true;
+                        }
+                    }
+                    for (int i = 0; i < assignedCount[teamB]; i++) {
+                        int b = assigned[teamB][i];
+                        int delta = coverage(teamA, a, b) + coverage(teamB, b, a) - coverageA - coverageB;
+                        if (delta > 0) {
+                            unassign(a);
+                            unassign(b);
+                            assign(a, teamB);
+                            assign(b, teamA);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Place users who add no coverage anywhere, preferring a team in one of their domains
+         */
+        private int fill(List<Integer> leftovers) {
+            PriorityQueue<Integer> roomiest = new PriorityQueue<>(Math.max(1, problem.teamCount),
+                    (a, b) -> Integer.compare(free[b], free[a]));
+            for (int t = 0; t < problem.teamCount; t++) {
+                if (free[t] > 0) {
+                    roomiest.add(t);
+                }
+            }
+
+            int filled = 0;
+            for (int u : leftovers) {
+                int team = -1;
+                for (int domain : problem.interests[u].toArray()) {
+                    int[] teams = domainPostings.get(domain);
+                    if (teams == null) {
+                        continue;
+                    }
+                    for (int t : teams) {
+                        if (free[t] > 0 && (team < 0 || free[t] > free[team])) {
+                            team = t;
+                        }
+                    }
+                }
+                if (team < 0) {
+                    if (roomiest.isEmpty()) {
+                        break;
+                    }
+                    team = roomiest.peek();
+                }
+                // Re-queue the team so the heap sees its new free slot count
+                roomiest.remove(team);
+                assign(u, team);
+                if (free[team] > 0) {
+                    roomiest.add(team);
+                }
+                filled++;
+            }
+            return filled;
+        }
+
+        /**
+         * Covered required skills of a team with one placed user removed and one user added
+         */
+        private int coverage(int t, int without, int with) {
+            return problem.required[t].intersectionCount(unionOf(t, without, with));
+        }
+
+        private SkillVector unionOf(int t, int without, int with) {
+            SkillVector union = problem.memberSkills[t];
+            for (int i = 0; i < assignedCount[t]; i++) {
+                int u = assigned[t][i];
+                if (u != without) {
+                    union = union.or(problem.skills[u]);
+                }
+            }
+            if (with >= 0) {
+                union = union.or(problem.skills[with]);
+            }
+            return union;
+        }
+
+        private void assign(int u, int t) {
+            assigned[t][assignedCount[t]++] = u;
+            free[t]--;
+            userTeam[u] = t;
+            missing[t] = missing[t].andNot(problem.skills[u]);
+        }
+
+        private void unassign(int u) {
+            int t = userTeam[u];
+            for (int i = 0; i < assignedCount[t]; i++) {
+                if (assigned[t][i] == u) {
+                    assigned[t][i] = assigned[t][--assignedCount[t]];
+                    break;
+                }
+            }
+            free[t]++;
+            userTeam[u] = -1;
+            missing[t] = problem.required[t].andNot(unionOf(t, -1, -1));
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            int[] array = new int[values.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = values.get(i);
+            }
+            return array;
+        }
+
+        private static void shuffle(int[] values, Random random) {
+            for (int i = values.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = values[i];
+                values[i] = values[j];
+                values[j] = tmp;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.hackmate.service.matching;
+
+/**
+ * Published by {@link TeamSkillIndex} whenever a team is re-indexed or dropped.
+ * Carries the skills and domain the team had before and after the change so listeners
+ * can tell which users the change is relevant to.
+ */
+public class TeamIndexChangedEvent {
+
+    private final long teamId;
+    private final SkillVector previousSkills;
+    private final int previousDomainId;
+    private final SkillVector currentSkills;
+    private final int currentDomainId;
+
+    // Snapshot now held by the index, null when the team was dropped or cannot take members
+    private final TeamSkillIndex.IndexedTeam indexedTeam;
+
+    public TeamIndexChangedEvent(long teamId, SkillVector previousSkills, int previousDomainId,
+                                 SkillVector currentSkills, int currentDomainId) {
+        this(teamId, previousSkills, previousDomainId, currentSkills, currentDomainId, null);
+    }
+
+    TeamIndexChangedEvent(long teamId, SkillVector previousSkills, int previousDomainId,
+                          SkillVector currentSkills, int currentDomainId, TeamSkillIndex.IndexedTeam indexedTeam) {
+        this.teamId = teamId;
+        this.previousSkills = previousSkills;
+        this.previousDomainId = previousDomainId;
+        this.currentSkills = currentSkills;
+        this.currentDomainId = currentDomainId;
+        this.indexedTeam = indexedTeam;
+    }
+
+    public long getTeamId() {
+        return teamId;
+    }
+
+    public SkillVector getPreviousSkills() {
+        return previousSkills;
+    }
+
+    public int getPreviousDomainId() {
+        return previousDomainId;
+    }
+
+    public SkillVector getCurrentSkills() {
+        return currentSkills;
+    }
+
+    public int getCurrentDomainId() {
+        return currentDomainId;
+    }
+
+    TeamSkillIndex.IndexedTeam getIndexedTeam() {
+        return indexedTeam;
+    }
+
+    /**
+     * True if a user with these skills and interests could have gained or lost this team
+     */
+    public boolean isRelevantTo(SkillVector userSkills, SkillVector userInterests) {
+        return previousSkills.intersectionCount(userSkills) > 0
+                || currentSkills.intersectionCount(userSkills) > 0
+                || (previousDomainId >= 0 && userInterests.contains(previousDomainId))
+                || (currentDomainId >= 0 && userInterests.contains(currentDomainId));
+    }
+}
@@ -0,0 +1,157 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.TeamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Team creations per project domain in hourly buckets over the last 30 days.
+ * Each domain keeps a ring buffer of 720 hour slots, so any window up to 30 days is a sum
+ * over at most 720 counters and no query touches the database. Seeded from the teams table
+ * at startup and rebuilt from it periodically to correct any drift.
+ */
+@Component
+public class TrendingDomainCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingDomainCounter.class);
+
+    public static final int MAX_WINDOW_HOURS = 30 * 24;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    private volatile Map<String, HourlyRing> rings = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild all counters from the teams created in the last 30 days and swap them in
+     */
+    @Scheduled(fixedDelayString = "${app.matching.trending.reconcile-ms:3600000}",
+               initialDelayString = "${app.matching.trending.reconcile-ms:3600000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long nowHour = currentHour();
+        LocalDateTime since = LocalDateTime.now().minusHours(MAX_WINDOW_HOURS);
+
+        Map<String, HourlyRing> rebuilt = new ConcurrentHashMap<>();
+        for (Object[] row : teamRepository.findDomainsCreatedSince(since)) {
+            String domain = (String) row[0];
+            long hour = hourOf((LocalDateTime) row[1]);
+            if (domain != null && hour > nowHour - MAX_WINDOW_HOURS) {
+                rebuilt.computeIfAbsent(domain, key -> new HourlyRing()).add(hour, 1);
+            }
+        }
+        rings = rebuilt;
+        logger.debug("Trending domain counters rebuilt for {} domains", rebuilt.size());
+    }
+
+    public void recordCreated(String domain, LocalDateTime createdAt) {
+        record(domain, createdAt, 1);
+    }
+
+    public void recordDeleted(String domain, LocalDateTime createdAt) {
+        record(domain, createdAt, -1);
+    }
+
+    /**
+     * Move a team's creation from one domain to another after its domain was edited
+     */
+    public void recordDomainChange(String previousDomain, String domain, LocalDateTime createdAt) {
+        if (Objects.equals(previousDomain, domain)) {
+            return;
+        }
+        record(previousDomain, createdAt, -1);
+        record(domain, createdAt, 1);
+    }
+
+    /**
+     * Domains with the most teams created within the last windowHours, most first
+     */
+    public List<String> topDomains(int windowHours, int limit) {
+        int window = Math.max(1, Math.min(windowHours, MAX_WINDOW_HOURS));
+        long nowHour = currentHour();
+
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (Map.Entry<String, HourlyRing> entry : rings.entrySet()) {
+            int count = entry.getValue().sum(nowHour, window);
+            if (count > 0) {
+                counts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> domains = new ArrayList<>(Math.min(limit, counts.size()));
+        for (int i = 0; i < counts.size() && i < limit; i++) {
+            domains.add(counts.get(i).getKey());
+        }
+        return domains;
+    }
+
+    private void record(String domain, LocalDateTime createdAt, int delta) {
+        if (domain == null || createdAt == null) {
+            return;
+        }
+        long hour = hourOf(createdAt);
+        if (hour <= currentHour() - MAX_WINDOW_HOURS) {
+            return; // Outside every window already
+        }
+        rings.computeIfAbsent(domain, key -> new HourlyRing()).add(hour, delta);
+    }
+
+    private static long currentHour() {
+        return TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis());
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return TimeUnit.MILLISECONDS.toHours(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Counts per absolute hour, slot = hour mod 720. A slot still holding an older hour is
+     * treated as empty and reset on the next write.
+     */
+    private static class HourlyRing {
+        private final int[] counts = new int[MAX_WINDOW_HOURS];
+        private final long[] hours = new long[MAX_WINDOW_HOURS];
+
+        synchronized void add(long hour, int delta) {
+            int slot = (int) (hour % MAX_WINDOW_HOURS);
+            if (hours[slot] != hour) {
+                hours[slot] = hour;
+                counts[slot] = 0;
+            }
+            counts[slot] = Math.max(0, counts[slot] + delta);
+        }
+
+        synchronized int sum(long nowHour, int window) {
+            int total = 0;
+            for (long hour = nowHour - window + 1; hour <= nowHour; hour++) {
+                int slot = (int) (hour % MAX_WINDOW_HOURS);
+                if (hours[slot] == hour) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+}
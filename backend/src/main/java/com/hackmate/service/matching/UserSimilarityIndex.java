@@ -0,0 +1,272 @@
+package com.hackmate.service.matching;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MinHash signatures of every user's skills and interests, banded into LSH buckets.
+ * Users sharing a bucket with the query user are the only ones scored, so similar and
+ * complementary teammates are found without scanning all users.
+ * Two tables are kept: one over skills and interests for look-alikes, one over interests
+ * only for people who share a domain and may bring the skills the user lacks.
+ */
+@Component
+public class UserSimilarityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSimilarityIndex.class);
+
+    private static final double COMPLEMENT_SKILL_WEIGHT = 0.6;
+    private static final double COMPLEMENT_INTEREST_WEIGHT = 0.4;
+
+    @Autowired
+    private UserCandidateStream userCandidateStream;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Value("${app.matching.similarity.bands:16}")
+    private int bands;
+
+    @Value("${app.matching.similarity.rows:4}")
+    private int rows;
+
+    @Value("${app.matching.similarity.max-candidates:2000}")
+    private int maxCandidates;
+
+    @Value("${app.matching.similarity.batch-size:1000}")
+    private int batchSize;
+
+    private long[] seeds;
+
+    private final Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+
+    // band key -> users, for the combined and the interest-only signatures
+    private final Map<Long, Set<Long>> profileBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> interestBuckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Random random = new Random(0x5eed);
+        seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Sign every user with at least one skill or interest
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public synchronized void rebuild() {
+        profiles.clear();
+        profileBuckets.clear();
+        interestBuckets.clear();
+        userCandidateStream.forEachChunk(batchSize, chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                put(chunk.idAt(i), chunk.skillVector(i), chunk.interestVector(i));
+            }
+        });
+        logger.info("User similarity index built with {} users and {} buckets",
+                profiles.size(), profileBuckets.size() + interestBuckets.size());
+    }
+
+    /**
+     * Re-sign a user after their skills or interests changed
+     */
+    public synchronized void update(Long userId, Collection<String> skills, Collection<String> interests) {
+        unindex(userId);
+        put(userId, skillDictionary.vectorOf(skills), skillDictionary.vectorOf(interests));
+    }
+
+    public synchronized void remove(Long userId) {
+        unindex(userId);
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    /**
+     * Users with the most similar skills and interests by Jaccard similarity, best first
+     */
+    public List<ScoredMatch> similarUsers(Long userId, int limit) {
+        Profile profile = profiles.get(userId);
+        if (profile == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        TopKCollector topK = new TopKCollector(limit);
+        for (Long candidateId : candidates(profileBuckets, userId, profile.profileKeys)) {
+            Profile candidate = profiles.get(candidateId);
+            if (candidate == null) {
+                continue;
+            }
+            int intersection = profile.skills.intersectionCount(candidate.skills)
+                    + profile.interests.intersectionCount(candidate.interests);
+            int union = profile.tokenCount() + candidate.tokenCount() - intersection;
+            if (intersection > 0) {
+                topK.offer(candidateId, (double) intersection / union);
+            }
+        }
+        return topK.toSortedMatches();
+    }
+
+    /**
+     * Users sharing the user's interests who bring skills the user does not have.
+     * Scored by the share of the candidate's skills that are new (60% weight) and the
+     * interest overlap (40% weight).
+     */
+    public List<ScoredMatch> complementaryUsers(Long userId, int limit) {
+        Profile profile = profiles.get(userId);
+        if (profile == null || profile.interests.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        TopKCollector topK = new TopKCollector(limit);
+        for (Long candidateId : candidates(interestBuckets, userId, profile.interestKeys)) {
+            Profile candidate = profiles.get(candidateId);
+            if (candidate == null || candidate.skills.isEmpty()) {
+                continue;
+            }
+            int newSkills = candidate.skills.andNotCount(profile.skills);
+            if (newSkills == 0) {
+                continue;
+            }
+            int sharedInterests = profile.interests.intersectionCount(candidate.interests);
+            int interestUnion = profile.interests.cardinality() + candidate.interests.cardinality() - sharedInterests;
+            double score = COMPLEMENT_SKILL_WEIGHT * newSkills / candidate.skills.cardinality()
+                    + COMPLEMENT_INTEREST_WEIGHT * sharedInterests / interestUnion;
+            topK.offer(candidateId, score);
+        }
+        return topK.toSortedMatches();
+    }
+
+    private Set<Long> candidates(Map<Long, Set<Long>> buckets, Long userId, long[] keys) {
+        Set<Long> candidates = new HashSet<>();
+        for (long key : keys) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            for (Long candidateId : bucket) {
+                if (!candidateId.equals(userId)) {
+                    candidates.add(candidateId);
+                    if (candidates.size() >= maxCandidates) {
+                        return candidates;
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void put(long userId, SkillVector skills, SkillVector interests) {
+        if (skills.isEmpty() && interests.isEmpty()) {
+            return;
+        }
+        // Skills and interests are hashed as distinct tokens even when they share a dictionary id
+        int[] profileTokens = new int[skills.cardinality() + interests.cardinality()];
+        int n = 0;
+        for (int skill : skills.toArray()) {
+            profileTokens[n++] = skill << 1;
+        }
+        for (int interest : interests.toArray()) {
+            profileTokens[n++] = (interest << 1) | 1;
+        }
+        int[] interestTokens = Arrays.copyOfRange(profileTokens, skills.cardinality(), n);
+
+        Profile profile = new Profile(skills, interests,
+                bandKeys(signature(profileTokens)),
+                interestTokens.length > 0 ? bandKeys(signature(interestTokens)) : new long[0]);
+        profiles.put(userId, profile);
+        for (long key : profile.profileKeys) {
+            profileBuckets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+        for (long key : profile.interestKeys) {
+            interestBuckets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+    }
+
+    private void unindex(Long userId) {
+        Profile previous = profiles.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        removeFromBuckets(profileBuckets, previous.profileKeys, userId);
+        removeFromBuckets(interestBuckets, previous.interestKeys, userId);
+    }
+
+    private static void removeFromBuckets(Map<Long, Set<Long>> buckets, long[] keys, Long userId) {
+        for (long key : keys) {
+            buckets.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(userId);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private int[] signature(int[] tokens) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int token : tokens) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) mix(token ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private long[] bandKeys(int[] signature) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band;
+            for (int row = 0; row < rows; row++) {
+                key = key * 31 + signature[band * rows + row];
+            }
+            keys[band] = mix(key);
+        }
+        return keys;
+    }
+
+    // MurmurHash3 finalizer
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static class Profile {
+        final SkillVector skills;
+        final SkillVector interests;
+        final long[] profileKeys;
+        final long[] interestKeys;
+
+        Profile(SkillVector skills, SkillVector interests, long[] profileKeys, long[] interestKeys) {
+            this.skills = skills;
+            this.interests = interests;
+            this.profileKeys = profileKeys;
+            this.interestKeys = interestKeys;
+        }
+
+        int tokenCount() {
+            return skills.cardinality() + interests.cardinality();
+        }
+    }
+}
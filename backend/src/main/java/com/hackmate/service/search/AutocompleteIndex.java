@@ -0,0 +1,311 @@
+package com.hackmate.service.search;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over every skill, interest and project domain, weighted by how many teams and users
+ * use it. Each kind is a character trie whose nodes cache the best completions of their subtree,
+ * so a lookup is a walk down the prefix and a copy of that node's list.
+ * Counts move with profile and team edits; only the nodes on the changed term's path are
+ * recomputed. A periodic rebuild from the database corrects any drift.
+ */
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    // Completions cached per node, and so the largest limit a lookup can serve
+    public static final int MAX_SUGGESTIONS = 10;
+
+    public enum Kind { SKILL, INTEREST, DOMAIN }
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Kind, Trie> tries = new EnumMap<>(Kind.class);
+
+    public AutocompleteIndex() {
+        for (Kind kind : Kind.values()) {
+            tries.put(kind, new Trie());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Reload every term and count from the database
+     */
+    @Scheduled(fixedDelayString = "${app.search.autocomplete.rebuild-ms:3600000}",
+               initialDelayString = "${app.search.autocomplete.rebuild-ms:3600000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Required team skills and user skills share one vocabulary
+        List<Object[]> skills = new ArrayList<>(teamRepository.findRequiredSkillCounts());
+        skills.addAll(userRepository.findSkillCounts());
+        tries.get(Kind.SKILL).rebuild(skills);
+        tries.get(Kind.INTEREST).rebuild(userRepository.findInterestCounts());
+        tries.get(Kind.DOMAIN).rebuild(teamRepository.findProjectDomainCounts());
+        logger.debug("Autocomplete rebuilt: {} skills, {} interests, {} domains",
+                tries.get(Kind.SKILL).size(), tries.get(Kind.INTEREST).size(), tries.get(Kind.DOMAIN).size());
+    }
+
+    /**
+     * Apply the difference between a team's or user's previous and current terms of one kind.
+     * Pass an empty collection as previous for a new entity and as current for a deleted one.
+     */
+    public void recordChange(Kind kind, Collection<String> previousTerms, Collection<String> currentTerms) {
+        Set<String> previous = previousTerms != null ? new HashSet<>(previousTerms) : Collections.emptySet();
+        Set<String> current = currentTerms != null ? new HashSet<>(currentTerms) : Collections.emptySet();
+        Trie trie = tries.get(kind);
+        for (String term : previous) {
+            if (!current.contains(term)) {
+                trie.add(term, -1);
+            }
+        }
+        for (String term : current) {
+            if (!previous.contains(term)) {
+                trie.add(term, 1);
+            }
+        }
+    }
+
+    /**
+     * Most used terms starting with the prefix, of one kind or of every kind when kind is null
+     */
+    public List<Suggestion> suggest(String prefix, Kind kind, int limit) {
+        int max = Math.max(0, Math.min(limit, MAX_SUGGESTIONS));
+        String key = normalize(prefix);
+        if (kind != null) {
+            return tries.get(kind).suggest(key, kind, max);
+        }
+        List<Suggestion> merged = new ArrayList<>();
+        for (Map.Entry<Kind, Trie> entry : tries.entrySet()) {
+            merged.addAll(entry.getValue().suggest(key, entry.getKey(), max));
+        }
+        merged.sort(Comparator.comparingLong(Suggestion::getCount).reversed()
+                .thenComparing(Suggestion::getText));
+        return merged.size() > max ? new ArrayList<>(merged.subList(0, max)) : merged;
+    }
+
+    private static String normalize(String raw) {
+        return raw == null ? "" : raw.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A completion and the number of teams or users using it
+     */
+    public static class Suggestion {
+        private final String text;
+        private final Kind type;
+        private final long count;
+
+        Suggestion(String text, Kind type, long count) {
+            this.text = text;
+            this.type = type;
+            this.count = count;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Kind getType() {
+            return type;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    private static final class Term {
+        final String key;
+        String display;
+        long weight;
+
+        Term(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Term[] NO_TERMS = new Term[0];
+
+        // Children sorted by label, kept as arrays since most nodes have one or two
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        Term term;
+        Term[] top = NO_TERMS;
+
+        Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        /**
+         * Best completions of this subtree: the best of this node's term and the children's lists
+         */
+        void recomputeTop() {
+            List<Term> candidates = new ArrayList<>();
+            if (term != null && term.weight > 0) {
+                candidates.add(term);
+            }
+            for (Node child : children) {
+                Collections.addAll(candidates, child.top);
+            }
+            candidates.sort(BY_WEIGHT);
+            top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_TERMS);
+        }
+    }
+
+    private static final Comparator<Term> BY_WEIGHT = Comparator.<Term>comparingLong(term -> term.weight).reversed()
+            .thenComparing(term -> term.key);
+
+    private static final class Trie {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Node root = new Node();
+        private int size;
+
+        /**
+         * Replace the contents with (raw term, count) rows; spellings that normalize alike are
+         * merged and shown in their most used form
+         */
+        void rebuild(List<Object[]> rows) {
+            Map<String, Term> terms = new HashMap<>();
+            Map<String, Long> displayCounts = new HashMap<>();
+            for (Object[] row : rows) {
+                String raw = (String) row[0];
+                String key = normalize(raw);
+                if (key.isEmpty()) {
+                    continue;
+                }
+                long count = ((Number) row[1]).longValue();
+                Term term = terms.computeIfAbsent(key, k -> new Term(k, raw.trim()));
+                term.weight += count;
+                long displayCount = displayCounts.merge(raw.trim(), count, Long::sum);
+                if (displayCount > displayCounts.getOrDefault(term.display, 0L)) {
+                    term.display = raw.trim();
+                }
+            }
+
+            Node newRoot = new Node();
+            for (Term term : terms.values()) {
+                Node node = newRoot;
+                for (int i = 0; i < term.key.length(); i++) {
+                    node = node.childOrCreate(term.key.charAt(i));
+                }
+                node.term = term;
+            }
+            recomputeAll(newRoot);
+
+            lock.writeLock().lock();
+            try {
+                root = newRoot;
+                size = terms.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void add(String raw, long delta) {
+            String key = normalize(raw);
+            if (key.isEmpty()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                Node[] path = new Node[key.length() + 1];
+                path[0] = root;
+                for (int i = 0; i < key.length(); i++) {
+                    path[i + 1] = path[i].childOrCreate(key.charAt(i));
+                }
+                Node leaf = path[key.length()];
+                if (leaf.term == null) {
+                    leaf.term = new Term(key, raw.trim());
+                    size++;
+                }
+                leaf.term.weight = Math.max(0, leaf.term.weight + delta);
+                for (int i = path.length - 1; i >= 0; i--) {
+                    path[i].recomputeTop();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Suggestion> suggest(String prefix, Kind kind, int limit) {
+            lock.readLock().lock();
+            try {
+                Node node = root;
+                for (int i = 0; i < prefix.length() && node != null; i++) {
+                    node = node.child(prefix.charAt(i));
+                }
+                if (node == null) {
+                    return Collections.emptyList();
+                }
+                List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, node.top.length));
+                for (int i = 0; i < node.top.length && i < limit; i++) {
+                    suggestions.add(new Suggestion(node.top[i].display, kind, node.top[i].weight));
+                }
+                return suggestions;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static void recomputeAll(Node node) {
+            for (Node child : node.children) {
+                recomputeAll(child);
+            }
+            node.recomputeTop();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Member counts kept by conditional UPDATEs on join and leave, soft deletes purged in the
+-- background, and the tables shared between instances for cache invalidation and job leases.
+
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS member_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill member counts for rows written before member_count existed
+UPDATE teams SET member_count = (SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = teams.id);
+
+-- Set on soft delete; the row and its messages are purged in the background
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP NULL;
+ALTER TABLE teams ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP NULL;
+CREATE INDEX IF NOT EXISTS idx_users_deleted_at ON users (deleted_at);
+CREATE INDEX IF NOT EXISTS idx_teams_deleted_at ON teams (deleted_at);
+
+-- Team cache invalidations shared between instances, polled by id and pruned by age
+CREATE TABLE IF NOT EXISTS team_cache_invalidations (
+    id BIGSERIAL PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_team_cache_invalidations_created_at ON team_cache_invalidations (created_at);
+
+-- Leases that let one instance at a time run a scheduled job. lease_until is set and compared
+-- with CURRENT_TIMESTAMP only, so it carries its time zone to stay independent of session settings
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    lease_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,22 @@
+-- Team formation proposals awaiting an organizer's commit, shared so any instance can commit them
+CREATE TABLE IF NOT EXISTS formation_proposals (
+    id VARCHAR(36) PRIMARY KEY,
+    organizer_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    unplaced_users INT NOT NULL,
+    coverage_before INT NOT NULL,
+    coverage_after INT NOT NULL,
+    required_total INT NOT NULL,
+    local_search_improvements INT NOT NULL,
+    filled_without_gain INT NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_formation_proposals_expires_at ON formation_proposals (expires_at);
+
+-- The placements of a proposal, removed with it
+CREATE TABLE IF NOT EXISTS formation_placements (
+    proposal_id VARCHAR(36) NOT NULL REFERENCES formation_proposals (id) ON DELETE CASCADE,
+    team_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (proposal_id, user_id)
+);
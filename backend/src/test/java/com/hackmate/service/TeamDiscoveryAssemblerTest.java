@@ -0,0 +1,106 @@
+package com.hackmate.service;
+
+import com.hackmate.dto.TeamDiscoveryDTO;
+import com.hackmate.dto.TeamMemberDTO;
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The discovery assembler must cost the same three statements (teams with creators, required
+ * skills, members) whether a page holds one team or fifty.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // schema.sql is MySQL-only; Hibernate creates the H2 schema from the entities
+        "spring.sql.init.mode=never"
+})
+@Import(TeamDiscoveryAssembler.class)
+class TeamDiscoveryAssemblerTest {
+
+    private static final int STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private TeamDiscoveryAssembler assembler;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> teamIds = new ArrayList<>();
+
+    @BeforeEach
+    void createTeams() {
+        for (int i = 0; i < 50; i++) {
+            User creator = entityManager.persist(new User("leader" + i, "leader" + i + "@example.com", "Leader " + i));
+            User member = entityManager.persist(new User("member" + i, "member" + i + "@example.com", "Member " + i));
+            Team team = new Team("Team " + i, "Team number " + i, "Web", creator);
+            team.getMembers().add(member);
+            team.getRequiredSkills().add("Java");
+            team.getRequiredSkills().add("SQL");
+            teamIds.add(entityManager.persist(team).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void singleTeamPageUsesThreeStatements() {
+        assertStatementsForPage(1);
+    }
+
+    @Test
+    void defaultPageUsesThreeStatements() {
+        assertStatementsForPage(12);
+    }
+
+    @Test
+    void largePageUsesThreeStatements() {
+        assertStatementsForPage(50);
+    }
+
+    @Test
+    void keepsRequestedOrderAndSkipsMissingTeams() {
+        List<Long> ids = new ArrayList<>(List.of(teamIds.get(2), -1L, teamIds.get(0)));
+
+        List<TeamDiscoveryDTO> dtos = assembler.assemble(ids);
+
+        assertEquals(2, dtos.size());
+        assertEquals(teamIds.get(2), dtos.get(0).getId());
+        assertEquals(teamIds.get(0), dtos.get(1).getId());
+        assertEquals(2, dtos.get(0).getCurrentMembers());
+        assertEquals("leader2", dtos.get(0).getLeaderUsername());
+    }
+
+    private void assertStatementsForPage(int size) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TeamDiscoveryDTO> dtos = assembler.assemble(teamIds.subList(0, size));
+
+        assertEquals(size, dtos.size());
+        for (TeamDiscoveryDTO dto : dtos) {
+            assertEquals(2, dto.getMembers().size());
+            assertEquals(2, dto.getRequiredSkills().size());
+            assertTrue(dto.getMembers().stream().anyMatch(TeamMemberDTO::isLeader));
+        }
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+    }
+}
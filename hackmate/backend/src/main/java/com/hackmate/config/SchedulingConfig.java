@@ -0,0 +1,30 @@
+package com.hackmate.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers for the @Scheduled jobs. "taskScheduler", the default, runs short periodic work
+ * such as the cache invalidation poll and is sized by spring.task.scheduling.pool.size. Jobs that
+ * scan or write many rows name {@link #BATCH_SCHEDULER}, so a long run never delays the short ones.
+ * Declaring the default here also keeps @Scheduled methods off the WebSocket broker's scheduler.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BATCH_SCHEDULER = "batchScheduler";
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(BATCH_SCHEDULER)
+    public ThreadPoolTaskScheduler batchScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                  @Value("${app.scheduling.batch.pool-size:4}") int poolSize) {
+        return builder.poolSize(poolSize).threadNamePrefix("batch-").build();
+    }
+}
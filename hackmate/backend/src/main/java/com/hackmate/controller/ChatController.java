@@ -9,6 +9,8 @@ import com.hackmate.repository.ChatMessageRepository;
 import com.hackmate.repository.TeamRepository;
 import com.hackmate.repository.UserRepository;
 import com.hackmate.security.UserPrincipal;
+import com.hackmate.service.MembershipService;
+import com.hackmate.service.cache.TeamViewCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -43,6 +45,12 @@ public class ChatController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
+    @Autowired
+    private MembershipService membershipService;
+    
+    @Autowired
+    private TeamViewCache teamViewCache;
+    
     @GetMapping("/teams/{teamId}/messages")
     public ResponseEntity<Page<ChatMessage>> getTeamMessages(
             @PathVariable Long teamId,
@@ -51,13 +59,7 @@ public class ChatController {
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
         // Check if user is a member of the team
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!team.getMembers().contains(user)) {
+        if (!membershipService.isMember(teamId, userPrincipal.getId())) {
             return ResponseEntity.status(403).build();
         }
         
@@ -74,13 +76,7 @@ public class ChatController {
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
         // Check if user is a member of the team
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!team.getMembers().contains(user)) {
+        if (!membershipService.isMember(teamId, userPrincipal.getId())) {
             return ResponseEntity.status(403).build();
         }
         
@@ -97,13 +93,7 @@ public class ChatController {
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
         // Check if user is a member of the team
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (!team.getMembers().contains(user)) {
+        if (!membershipService.isMember(teamId, userPrincipal.getId())) {
             return ResponseEntity.status(403).build();
         }
         
@@ -127,14 +117,16 @@ public class ChatController {
         User sender = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
         // Check if user is a member of the team
-        if (!team.getMembers().contains(sender)) {
+        if (!membershipService.isMember(teamId, sender.getId())) {
             return; // User not authorized
         }
         
+        if (!teamViewCache.exists(teamId)) {
+            throw new RuntimeException("Team not found");
+        }
+        Team team = teamRepository.getReferenceById(teamId);
+        
         // Create and save the message
         ChatMessage chatMessage = new ChatMessage();
         chatMessage.setContent(messageRequest.getContent());
@@ -161,14 +153,16 @@ public class ChatController {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
-        
         // Check if user is a member of the team
-        if (!team.getMembers().contains(user)) {
+        if (!membershipService.isMember(teamId, user.getId())) {
             return;
         }
         
+        if (!teamViewCache.exists(teamId)) {
+            throw new RuntimeException("Team not found");
+        }
+        Team team = teamRepository.getReferenceById(teamId);
+        
         // Create join message
         ChatMessage joinMessage = new ChatMessage();
         joinMessage.setContent(user.getFullName() + " joined the chat");
@@ -195,8 +189,10 @@ public class ChatController {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new RuntimeException("Team not found"));
+        if (!teamViewCache.exists(teamId)) {
+            throw new RuntimeException("Team not found");
+        }
+        Team team = teamRepository.getReferenceById(teamId);
         
         // Create leave message
         ChatMessage leaveMessage = new ChatMessage();
@@ -0,0 +1,107 @@
+package com.hackmate.controller;
+
+import com.hackmate.dto.ApiResponse;
+import com.hackmate.dto.FormationProposal;
+import com.hackmate.dto.ImportReport;
+import com.hackmate.security.OrganizerAccess;
+import com.hackmate.security.UserPrincipal;
+import com.hackmate.service.TeamFormationService;
+import com.hackmate.service.bulk.BulkImportService;
+import com.hackmate.service.bulk.ImportFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/organizer")
+public class OrganizerController {
+
+    @Autowired
+    private TeamFormationService teamFormationService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private OrganizerAccess organizerAccess;
+
+    /**
+     * Compute a team assignment for every participant without a team
+     */
+    @PostMapping("/formation/proposals")
+    public ResponseEntity<?> proposeFormation(@RequestParam(defaultValue = "true") boolean fillRemaining,
+                                              @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (!organizerAccess.isOrganizer(userPrincipal)) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only organizers can form teams"));
+        }
+
+        FormationProposal proposal = teamFormationService.propose(userPrincipal.getId(), fillRemaining);
+        return ResponseEntity.ok(proposal);
+    }
+
+    @GetMapping("/formation/proposals/{proposalId}")
+    public ResponseEntity<?> getFormationProposal(@PathVariable String proposalId,
+                                                  @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (!organizerAccess.isOrganizer(userPrincipal)) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only organizers can form teams"));
+        }
+
+        return ResponseEntity.ok(teamFormationService.getProposal(proposalId));
+    }
+
+    /**
+     * Send the invitations of a proposal
+     */
+    @PostMapping("/formation/proposals/{proposalId}/commit")
+    public ResponseEntity<?> commitFormationProposal(@PathVariable String proposalId,
+                                                     @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (!organizerAccess.isOrganizer(userPrincipal)) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only organizers can form teams"));
+        }
+
+        try {
+            int created = teamFormationService.commit(proposalId, userPrincipal.getId());
+            return ResponseEntity.ok(new ApiResponse(true, created + " invitations sent"));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(409).body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Import users, teams, members or skills from a CSV or NDJSON request body
+     */
+    @PostMapping("/import/{entity}")
+    public ResponseEntity<?> importRecords(@PathVariable String entity,
+                                           @RequestParam(required = false) String format,
+                                           HttpServletRequest request,
+                                           @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
+        if (!organizerAccess.isOrganizer(userPrincipal)) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only organizers can import data"));
+        }
+
+        BulkImportService.Entity target;
+        try {
+            target = BulkImportService.Entity.valueOf(entity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Unknown import type: " + entity));
+        }
+        ImportFormat importFormat = ImportFormat.resolve(format, request.getContentType());
+        if (importFormat == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Send text/csv or application/x-ndjson"));
+        }
+
+        ImportReport report = bulkImportService.importRecords(target, importFormat, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+}
@@ -1,9 +1,18 @@
 package com.hackmate.controller;
 
+import com.hackmate.dto.ApiResponse;
+import com.hackmate.dto.CursorSlice;
+import com.hackmate.dto.PageCursor;
+import com.hackmate.dto.SkillGapBundleDTO;
 import com.hackmate.dto.TeamDiscoveryDTO;
-import com.hackmate.entity.Team;
-import com.hackmate.entity.User;
+import com.hackmate.dto.TeamView;
+import com.hackmate.model.User;
+import com.hackmate.service.MembershipService;
 import com.hackmate.service.TeamMatchingService;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.TeamDiscoveryIndex;
+import com.hackmate.service.matching.TrendingDomainCounter;
+import com.hackmate.service.search.AutocompleteIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,31 +24,38 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/matching")
 @CrossOrigin(origins = "http://localhost:3000")
 public class TeamMatchingController {
 
+    // Upper bound for the limit of every list endpoint
+    private static final int MAX_LIST_LIMIT = 100;
+
     @Autowired
     private TeamMatchingService teamMatchingService;
 
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private TeamViewCache teamViewCache;
+
     /**
      * Get personalized team recommendations for the current user
      */
     @GetMapping("/teams/recommended")
-    public ResponseEntity<List<TeamDiscoveryDTO>> getRecommendedTeams(
+    public ResponseEntity<?> getRecommendedTeams(
             Authentication authentication,
             @RequestParam(defaultValue = "10") int limit) {
         
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
         Long userId = Long.parseLong(authentication.getName());
-        List<Team> recommendedTeams = teamMatchingService.findMatchingTeams(userId, limit);
-        
-        List<TeamDiscoveryDTO> teamDTOs = recommendedTeams.stream()
-                .map(TeamDiscoveryDTO::new)
-                .collect(Collectors.toList());
-        
+        List<TeamDiscoveryDTO> teamDTOs = teamMatchingService.findMatchingTeamSummaries(userId, limit);
         return ResponseEntity.ok(teamDTOs);
     }
 
@@ -47,14 +63,43 @@ public class TeamMatchingController {
      * Get user recommendations for a specific team
      */
     @GetMapping("/users/recommended/{teamId}")
-    public ResponseEntity<List<User>> getRecommendedUsers(
+    public ResponseEntity<?> getRecommendedUsers(
             @PathVariable Long teamId,
             @RequestParam(defaultValue = "10") int limit) {
         
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
         List<User> recommendedUsers = teamMatchingService.findMatchingUsers(teamId, limit);
         return ResponseEntity.ok(recommendedUsers);
     }
 
+    /**
+     * Get groups of 1-3 users that together cover the skills a team is still missing
+     */
+    @GetMapping("/teams/{teamId}/gap-bundles")
+    public ResponseEntity<?> getGapBundles(
+            Authentication authentication,
+            @PathVariable Long teamId,
+            @RequestParam(defaultValue = "3") int count,
+            @RequestParam(defaultValue = "3") int maxSize) {
+        
+        Long userId = Long.parseLong(authentication.getName());
+        TeamView teamView = teamViewCache.get(teamId).orElse(null);
+        if (teamView == null) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean isCreator = teamView.getCreator() != null && userId.equals(teamView.getCreator().getId());
+        if (!isCreator && !membershipService.isMember(teamId, userId)) {
+            return ResponseEntity.status(403)
+                    .body(new ApiResponse(false, "Only team members can see candidate bundles"));
+        }
+        
+        List<SkillGapBundleDTO> bundles = teamMatchingService.findGapBundles(teamId, count, Math.min(maxSize, 3));
+        return ResponseEntity.ok(bundles);
+    }
+
     /**
      * Discover teams with filtering and sorting options
      */
@@ -74,20 +119,96 @@ public class TeamMatchingController {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Team> teams = teamMatchingService.getRecommendedTeams(userId, domain, skills, sortBy, pageable);
-        Page<TeamDiscoveryDTO> teamDTOs = teams.map(TeamDiscoveryDTO::new);
-        
+        Page<TeamDiscoveryDTO> teamDTOs = teamMatchingService.getRecommendedTeams(userId, domain, skills, sortBy, pageable);
         return ResponseEntity.ok(teamDTOs);
     }
 
+    /**
+     * Keyset-paged variant of discoverTeams: no total count, pass nextCursor to continue
+     */
+    @GetMapping("/teams/discover/scroll")
+    public ResponseEntity<?> scrollDiscoverTeams(
+            Authentication authentication,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size) {
+        
+        Long userId = Long.parseLong(authentication.getName());
+        boolean ascending = sortDir.equalsIgnoreCase("asc");
+        int pageSize = Math.max(1, Math.min(size, 100));
+        
+        try {
+            PageCursor after = cursor != null ? PageCursor.decode(cursor) : null;
+            CursorSlice<TeamDiscoveryDTO> teams = teamMatchingService.scrollRecommendedTeams(
+                    userId, domain, skills, sortBy, ascending, after, pageSize);
+            return ResponseEntity.ok(teams);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Team counts per domain and skill for the discover filters
+     */
+    @GetMapping("/teams/discover/facets")
+    public ResponseEntity<?> getDiscoveryFacets(
+            Authentication authentication,
+            @RequestParam(required = false) String domain,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(defaultValue = "30") int limit) {
+
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        Long userId = Long.parseLong(authentication.getName());
+        TeamDiscoveryIndex.Facets facets = teamMatchingService.getDiscoveryFacets(userId, domain, skills, limit);
+
+        Map<String, Object> response = Map.of(
+            "domains", facets.getDomains(),
+            "skills", facets.getSkills()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get trending project domains
      */
     @GetMapping("/trending/domains")
-    public ResponseEntity<List<String>> getTrendingDomains(
-            @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<?> getTrendingDomains(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "30d") String window) {
+        
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
         
-        List<String> trendingDomains = teamMatchingService.getTrendingDomains(limit);
+        // Window is a number of hours or days, e.g. 1h, 24h, 7d, 30d
+        long windowHours;
+        try {
+            long amount = Long.parseLong(window.substring(0, window.length() - 1));
+            if (window.endsWith("h")) {
+                windowHours = amount;
+            } else if (window.endsWith("d")) {
+                windowHours = amount * 24;
+            } else {
+                windowHours = -1;
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException ex) {
+            windowHours = -1;
+        }
+        if (windowHours < 1 || windowHours > TrendingDomainCounter.MAX_WINDOW_HOURS) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "window must be between 1h and "
+                            + TrendingDomainCounter.MAX_WINDOW_HOURS / 24 + "d, e.g. 24h or 7d"));
+        }
+        
+        List<String> trendingDomains = teamMatchingService.getTrendingDomains((int) windowHours, limit);
         return ResponseEntity.ok(trendingDomains);
     }
 
@@ -95,9 +216,14 @@ public class TeamMatchingController {
      * Get popular skills across teams
      */
     @GetMapping("/popular/skills")
-    public ResponseEntity<List<String>> getPopularSkills(
+    public ResponseEntity<?> getPopularSkills(
             @RequestParam(defaultValue = "15") int limit) {
         
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        
         List<String> popularSkills = teamMatchingService.getPopularSkills(limit);
         return ResponseEntity.ok(popularSkills);
     }
@@ -109,21 +235,47 @@ public class TeamMatchingController {
     public ResponseEntity<Map<String, Object>> getMatchingStats(Authentication authentication) {
         Long userId = Long.parseLong(authentication.getName());
         
-        // Get basic matching stats
-        List<Team> recommendedTeams = teamMatchingService.findMatchingTeams(userId, 50);
+        // Get basic matching stats, counting cached matches without loading the teams
+        int recommendedTeams = teamMatchingService.getRecommendedTeamMatches(userId, 50).size();
         List<String> trendingDomains = teamMatchingService.getTrendingDomains(5);
         List<String> popularSkills = teamMatchingService.getPopularSkills(10);
         
         Map<String, Object> stats = Map.of(
-            "totalRecommendedTeams", recommendedTeams.size(),
+            "totalRecommendedTeams", recommendedTeams,
             "trendingDomains", trendingDomains,
             "popularSkills", popularSkills,
-            "hasRecommendations", !recommendedTeams.isEmpty()
+            "hasRecommendations", recommendedTeams > 0
         );
         
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Typeahead over skills, interests and project domains, most used first
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocomplete(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        AutocompleteIndex.Kind kind = null;
+        if (type != null && !type.equalsIgnoreCase("all")) {
+            try {
+                kind = AutocompleteIndex.Kind.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(false, "Unknown type: " + type));
+            }
+        }
+        
+        return ResponseEntity.ok(teamMatchingService.autocomplete(prefix, kind, limit));
+    }
+
     /**
      * Get team discovery filters (domains and skills available)
      */
@@ -2,15 +2,26 @@ package com.hackmate.controller;
 
 import com.hackmate.dto.ApiResponse;
 import com.hackmate.dto.UserProfileUpdateRequest;
+import com.hackmate.model.Team;
 import com.hackmate.model.User;
+import com.hackmate.repository.TeamRepository;
 import com.hackmate.repository.UserRepository;
 import com.hackmate.security.UserPrincipal;
+import com.hackmate.service.DeletionService;
+import com.hackmate.service.MembershipService;
+import com.hackmate.service.TeamMatchingService;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.RecommendationCache;
+import com.hackmate.service.matching.TeamSkillIndex;
+import com.hackmate.service.matching.UserSimilarityIndex;
+import com.hackmate.service.search.AutocompleteIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -18,9 +29,39 @@ import java.util.Set;
 @RequestMapping("/user")
 public class UserController {
 
+    // Upper bound for the limit of the similar and complementary user lists
+    private static final int MAX_LIST_LIMIT = 100;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TeamRepository teamRepository;
+    
+    @Autowired
+    private MembershipService membershipService;
+    
+    @Autowired
+    private DeletionService deletionService;
+    
+    @Autowired
+    private TeamViewCache teamViewCache;
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private UserSimilarityIndex userSimilarityIndex;
+
+    @Autowired
+    private TeamMatchingService teamMatchingService;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
     @GetMapping("/me")
     public ResponseEntity<User> getCurrentUser(@AuthenticationPrincipal UserPrincipal userPrincipal) {
         User user = userRepository.findById(userPrincipal.getId())
@@ -30,9 +71,11 @@ public class UserController {
 
     @PutMapping("/me")
     public ResponseEntity<?> updateCurrentUser(@Valid @RequestBody UserProfileUpdateRequest updateRequest,
-                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
+                                             @AuthenticationPrincipal UserPrincipal userPrincipal) {
         User user = userRepository.findById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        Set<String> previousSkills = new HashSet<>(user.getSkills());
+        Set<String> previousInterests = new HashSet<>(user.getInterests());
 
         // Update user profile
         if (updateRequest.getFullName() != null) {
@@ -55,6 +98,24 @@ public class UserController {
         }
 
         User updatedUser = userRepository.save(user);
+        // Team snapshots show member names and pictures
+        if (updateRequest.getFullName() != null || updateRequest.getProfileImageUrl() != null) {
+            teamViewCache.invalidateAll(membershipService.teamIdsOf(updatedUser.getId()));
+        }
+
+        // Recommendations depend on skills and interests only
+        if (updateRequest.getSkills() != null || updateRequest.getInterests() != null) {
+            recommendationCache.invalidateUser(updatedUser.getId());
+            userSimilarityIndex.update(updatedUser.getId(), updatedUser.getSkills(), updatedUser.getInterests());
+            autocompleteIndex.recordChange(AutocompleteIndex.Kind.SKILL, previousSkills, updatedUser.getSkills());
+            autocompleteIndex.recordChange(AutocompleteIndex.Kind.INTEREST, previousInterests, updatedUser.getInterests());
+        }
+        // The skill gaps of the user's teams depend on what the members know
+        if (updateRequest.getSkills() != null) {
+            for (Team team : teamRepository.findTeamsByMember(updatedUser)) {
+                teamSkillIndex.upsert(team);
+            }
+        }
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -79,6 +140,26 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/me/similar")
+    public ResponseEntity<?> getSimilarUsers(@RequestParam(defaultValue = "10") int limit,
+                                             @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        return ResponseEntity.ok(teamMatchingService.findSimilarUsers(userPrincipal.getId(), limit));
+    }
+
+    @GetMapping("/me/complementary")
+    public ResponseEntity<?> getComplementaryUsers(@RequestParam(defaultValue = "10") int limit,
+                                                   @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        return ResponseEntity.ok(teamMatchingService.findComplementaryUsers(userPrincipal.getId(), limit));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<User> getUserById(@PathVariable Long userId) {
         User user = userRepository.findById(userId)
@@ -91,7 +172,8 @@ public class UserController {
         User user = userRepository.findById(userPrincipal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        userRepository.delete(user);
-        return ResponseEntity.ok(new ApiResponse(true, "User account deleted successfully"));
+        // Teams, chat history and invitations are purged in the background
+        deletionService.deleteUser(user);
+        return ResponseEntity.accepted().body(new ApiResponse(true, "User account deleted successfully"));
     }
 }
\ No newline at end of file
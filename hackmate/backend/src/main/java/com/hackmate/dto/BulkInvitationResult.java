@@ -0,0 +1,67 @@
+package com.hackmate.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk invitation, one entry per requested recipient in request order
+ */
+public class BulkInvitationResult {
+
+    public enum Status { SENT, ALREADY_MEMBER, ALREADY_INVITED, UNKNOWN_USER, INVALID_EMAIL, DUPLICATE, TEAM_FULL }
+
+    private final Long teamId;
+    private int sent;
+    private final List<Outcome> outcomes = new ArrayList<>();
+
+    public BulkInvitationResult(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public void add(Long inviteeId, String inviteeEmail, Status status) {
+        outcomes.add(new Outcome(inviteeId, inviteeEmail, status));
+        if (status == Status.SENT) {
+            sent++;
+        }
+    }
+
+    public Long getTeamId() {
+        return teamId;
+    }
+
+    public int getSent() {
+        return sent;
+    }
+
+    public int getSkipped() {
+        return outcomes.size() - sent;
+    }
+
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public static class Outcome {
+        private final Long inviteeId;
+        private final String inviteeEmail;
+        private final Status status;
+
+        public Outcome(Long inviteeId, String inviteeEmail, Status status) {
+            this.inviteeId = inviteeId;
+            this.inviteeEmail = inviteeEmail;
+            this.status = status;
+        }
+
+        public Long getInviteeId() {
+            return inviteeId;
+        }
+
+        public String getInviteeEmail() {
+            return inviteeEmail;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+}
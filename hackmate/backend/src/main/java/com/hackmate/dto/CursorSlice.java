@@ -0,0 +1,57 @@
+package com.hackmate.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page without a total count. Pass nextCursor back to get the following page.
+ */
+public class CursorSlice<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public CursorSlice(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Build a slice from up to size + 1 fetched rows; the extra row only signals that there is a next page
+     */
+    public static <T> CursorSlice<T> of(List<T> fetched, int size, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = fetched.size() > size;
+        List<T> content = hasNext ? fetched.subList(0, size) : fetched;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorSlice<>(content, nextCursor, hasNext);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+}
@@ -0,0 +1,99 @@
+package com.hackmate.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read and imported, and why the others were rejected
+ */
+public class ImportReport {
+    private final String entity;
+    private final String format;
+    private final int maxErrors;
+    private int rowsRead;
+    private int imported;
+    private int rejected;
+    private final List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    public ImportReport(String entity, String format, int maxErrors) {
+        this.entity = entity;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    /**
+     * Count a rejected row; only the first maxErrors are listed
+     */
+    public void reject(int line, String message) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
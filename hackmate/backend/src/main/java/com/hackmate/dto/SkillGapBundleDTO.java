@@ -0,0 +1,41 @@
+package com.hackmate.dto;
+
+import com.hackmate.model.User;
+
+import java.util.List;
+
+public class SkillGapBundleDTO {
+    private List<User> users;
+    private List<String> coveredSkills;
+    private List<String> missingSkills;
+
+    public SkillGapBundleDTO(List<User> users, List<String> coveredSkills, List<String> missingSkills) {
+        this.users = users;
+        this.coveredSkills = coveredSkills;
+        this.missingSkills = missingSkills;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<User> users) {
+        this.users = users;
+    }
+
+    public List<String> getCoveredSkills() {
+        return coveredSkills;
+    }
+
+    public void setCoveredSkills(List<String> coveredSkills) {
+        this.coveredSkills = coveredSkills;
+    }
+
+    public List<String> getMissingSkills() {
+        return missingSkills;
+    }
+
+    public void setMissingSkills(List<String> missingSkills) {
+        this.missingSkills = missingSkills;
+    }
+}
@@ -1,10 +1,9 @@
 package com.hackmate.dto;
 
-import com.hackmate.entity.Team;
-import com.hackmate.entity.TeamMember;
-import com.hackmate.entity.TeamSkill;
+import com.hackmate.model.Team;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,39 +25,39 @@ public class TeamDiscoveryDTO {
     // Default constructor
     public TeamDiscoveryDTO() {}
 
-    // Constructor from Team entity
+    // Constructor from Team entity; walks the lazy members, prefer TeamDiscoveryAssembler for lists
     public TeamDiscoveryDTO(Team team) {
         this.id = team.getId();
         this.name = team.getName();
         this.description = team.getDescription();
         this.projectDomain = team.getProjectDomain();
         this.maxMembers = team.getMaxMembers();
-        this.currentMembers = team.getMembers().size();
+        this.currentMembers = team.getMemberCount();
         this.createdAt = team.getCreatedAt();
-        this.status = team.getStatus().toString();
+        this.status = statusOf(team.isOpen(), currentMembers, maxMembers);
         
-        // Get leader information
-        TeamMember leader = team.getMembers().stream()
-                .filter(member -> "LEADER".equals(member.getRole()))
-                .findFirst()
-                .orElse(null);
-        
-        if (leader != null) {
-            this.leaderName = leader.getUser().getFullName();
-            this.leaderUsername = leader.getUser().getUsername();
+        // The creator leads the team
+        Long leaderId = team.getCreator() != null ? team.getCreator().getId() : null;
+        if (team.getCreator() != null) {
+            this.leaderName = team.getCreator().getFullName();
+            this.leaderUsername = team.getCreator().getUsername();
         }
         
-        // Get required skills
-        this.requiredSkills = team.getRequiredSkills().stream()
-                .map(TeamSkill::getSkillName)
-                .collect(Collectors.toList());
+        this.requiredSkills = new ArrayList<>(team.getRequiredSkills());
         
         // Get member information
         this.members = team.getMembers().stream()
-                .map(TeamMemberDTO::new)
+                .map(member -> new TeamMemberDTO(member, member.getId().equals(leaderId)))
                 .collect(Collectors.toList());
     }
 
+    public static String statusOf(boolean open, int currentMembers, int maxMembers) {
+        if (!open) {
+            return "CLOSED";
+        }
+        return currentMembers >= maxMembers ? "FULL" : "OPEN";
+    }
+
     // Constructor with match score
     public TeamDiscoveryDTO(Team team, double matchScore) {
         this(team);
@@ -0,0 +1,65 @@
+package com.hackmate.dto;
+
+import com.hackmate.model.User;
+
+public class TeamMemberDTO {
+    private Long id;
+    private String username;
+    private String fullName;
+    private String profileImageUrl;
+    private boolean leader;
+
+    public TeamMemberDTO() {}
+
+    public TeamMemberDTO(Long id, String username, String fullName, String profileImageUrl, boolean leader) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+        this.profileImageUrl = profileImageUrl;
+        this.leader = leader;
+    }
+
+    public TeamMemberDTO(User user, boolean leader) {
+        this(user.getId(), user.getUsername(), user.getFullName(), user.getProfileImageUrl(), leader);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getProfileImageUrl() {
+        return profileImageUrl;
+    }
+
+    public void setProfileImageUrl(String profileImageUrl) {
+        this.profileImageUrl = profileImageUrl;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public void setLeader(boolean leader) {
+        this.leader = leader;
+    }
+}
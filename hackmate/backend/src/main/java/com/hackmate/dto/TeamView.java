@@ -0,0 +1,170 @@
+package com.hackmate.dto;
+
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a team and its members, the shape served by GET /api/teams/{id}.
+ * Instances are cached and shared between requests, so nothing here can be changed after creation.
+ */
+public final class TeamView {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String projectDomain;
+    private final List<String> requiredSkills;
+    private final Member creator;
+    private final List<Member> members;
+    private final int maxMembers;
+    private final int memberCount;
+    private final boolean open;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    private TeamView(Team team, Member creator, List<Member> members) {
+        this.id = team.getId();
+        this.name = team.getName();
+        this.description = team.getDescription();
+        this.projectDomain = team.getProjectDomain();
+        this.requiredSkills = Collections.unmodifiableList(new ArrayList<>(team.getRequiredSkills()));
+        this.creator = creator;
+        this.members = Collections.unmodifiableList(members);
+        this.maxMembers = team.getMaxMembers();
+        this.memberCount = team.getMemberCount();
+        this.open = team.isOpen();
+        this.createdAt = team.getCreatedAt();
+        this.updatedAt = team.getUpdatedAt();
+    }
+
+    /**
+     * Snapshot of a team; reads its creator and members, so call it while the entity is attached
+     */
+    public static TeamView of(Team team) {
+        Long creatorId = team.getCreator() != null ? team.getCreator().getId() : null;
+        Member creator = team.getCreator() != null ? new Member(team.getCreator(), true) : null;
+        List<Member> members = new ArrayList<>(team.getMembers().size());
+        for (User member : team.getMembers()) {
+            members.add(new Member(member, member.getId().equals(creatorId)));
+        }
+        return new TeamView(team, creator, members);
+    }
+
+    /**
+     * Rough heap footprint in bytes, used to bound the cache by size rather than entry count
+     */
+    public int estimatedSize() {
+        int size = 128 + chars(name) + chars(description) + chars(projectDomain);
+        for (String skill : requiredSkills) {
+            size += 48 + chars(skill);
+        }
+        if (creator != null) {
+            size += creator.estimatedSize();
+        }
+        for (Member member : members) {
+            size += member.estimatedSize();
+        }
+        return size;
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : 40 + 2 * value.length();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getProjectDomain() {
+        return projectDomain;
+    }
+
+    public List<String> getRequiredSkills() {
+        return requiredSkills;
+    }
+
+    public Member getCreator() {
+        return creator;
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public int getMaxMembers() {
+        return maxMembers;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public boolean isFull() {
+        return memberCount >= maxMembers;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static final class Member {
+        private final Long id;
+        private final String username;
+        private final String fullName;
+        private final String profileImageUrl;
+        private final boolean leader;
+
+        Member(User user, boolean leader) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.fullName = user.getFullName();
+            this.profileImageUrl = user.getProfileImageUrl();
+            this.leader = leader;
+        }
+
+        int estimatedSize() {
+            return 64 + chars(username) + chars(fullName) + chars(profileImageUrl);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public String getProfileImageUrl() {
+            return profileImageUrl;
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+    }
+}
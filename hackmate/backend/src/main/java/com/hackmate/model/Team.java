@@ -1,9 +1,12 @@
 package com.hackmate.model;
 
+import com.hackmate.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,10 +15,11 @@ import java.util.Set;
 
 @Entity
 @Table(name = "teams")
+@SQLRestriction("deleted_at IS NULL")
 public class Team {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @NotBlank
@@ -54,15 +58,25 @@ public class Team {
     
     private int maxMembers = 10;
     
+    // Written on insert only; joins and leaves change it with conditional UPDATEs
+    // (see TeamMembershipRepository) so a stale entity save can never overwrite it
+    @Column(name = "member_count", nullable = false, updatable = false)
+    private int memberCount;
+    
     private boolean isOpen = true;
     
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
     
-    @UpdateTimestamp
+    // Stamped by the database so every instance compares edits against one clock (see DatabaseClock)
+    @UpdateTimestamp(source = SourceType.DB)
     private LocalDateTime updatedAt;
     
+    // Set by PurgeRepository when the row is soft-deleted, never written through the entity
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
     // Constructors
     public Team() {}
     
@@ -72,6 +86,7 @@ public class Team {
         this.projectDomain = projectDomain;
         this.creator = creator;
         this.members.add(creator);
+        this.memberCount = 1;
     }
     
     // Getters and Setters
@@ -155,6 +170,14 @@ public class Team {
         this.maxMembers = maxMembers;
     }
     
+    public int getMemberCount() {
+        return memberCount;
+    }
+    
+    public void setMemberCount(int memberCount) {
+        this.memberCount = memberCount;
+    }
+    
     public boolean isOpen() {
         return isOpen;
     }
@@ -181,7 +204,7 @@ public class Team {
     
     // Helper methods
     public boolean isFull() {
-        return members.size() >= maxMembers;
+        return memberCount >= maxMembers;
     }
     
     public boolean isMember(User user) {
@@ -192,11 +215,14 @@ public class Team {
         if (!isFull() && !isMember(user)) {
             members.add(user);
             user.getTeams().add(this);
+            memberCount++;
         }
     }
     
     public void removeMember(User user) {
-        members.remove(user);
+        if (members.remove(user)) {
+            memberCount--;
+        }
         user.getTeams().remove(this);
     }
 }
\ No newline at end of file
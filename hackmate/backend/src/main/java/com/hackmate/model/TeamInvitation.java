@@ -1,5 +1,6 @@
 package com.hackmate.model;
 
+import com.hackmate.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 public class TeamInvitation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,10 +1,13 @@
 package com.hackmate.model;
 
+import com.hackmate.model.id.SnowflakeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,10 +16,11 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@SQLRestriction("deleted_at IS NULL")
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
     
     @NotBlank
@@ -75,9 +79,14 @@ public class User {
     @Column(updatable = false)
     private LocalDateTime createdAt;
     
-    @UpdateTimestamp
+    // Stamped by the database so every instance compares edits against one clock (see DatabaseClock)
+    @UpdateTimestamp(source = SourceType.DB)
     private LocalDateTime updatedAt;
     
+    // Set by PurgeRepository when the row is soft-deleted, never written through the entity
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
     // Constructors
     public User() {}
     
@@ -0,0 +1,32 @@
+package com.hackmate.model.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link SnowflakeId}. The node id comes from the hackmate.id.node-id
+ * Hibernate setting, which IdNodeLease fills in, and must differ per running instance.
+ * Ids are known before the INSERT, so Hibernate can batch inserts, which it cannot with IDENTITY.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "hackmate.id.node-id";
+
+    private final SnowflakeIds ids;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Integer node = context.getServiceRegistry().getService(ConfigurationService.class)
+                .getSetting(NODE_ID_SETTING, StandardConverters.INTEGER, 0);
+        this.ids = SnowflakeIds.forNode(node);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return ids.next();
+    }
+}
@@ -0,0 +1,35 @@
+package com.hackmate.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * The database's current time, the clock that stamps users.updated_at and teams.updated_at.
+ * Watermarks compared with those columns are taken from here rather than from the instance's
+ * own clock, so skew between instances cannot skip or repeat changes.
+ */
+@Repository
+public class DatabaseClock {
+
+    private static final String NOW_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class).toLocalDateTime();
+    }
+}
@@ -0,0 +1,120 @@
+package com.hackmate.repository;
+
+import com.hackmate.dto.FormationProposal;
+import com.hackmate.service.matching.FormationPlan;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formation proposals in the formation_proposals and formation_placements tables, so a proposal
+ * made on one instance can be reviewed and committed on any other. Placements go to the
+ * database in batches and are checked against current memberships and team sizes in SQL.
+ */
+@Repository
+public class FormationProposalRepository {
+
+    private static final String INSERT_PROPOSAL_SQL =
+            "INSERT INTO formation_proposals (id, organizer_id, created_at, expires_at, unplaced_users," +
+            " coverage_before, coverage_after, required_total, local_search_improvements, filled_without_gain)" +
+            " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_PLACEMENT_SQL =
+            "INSERT INTO formation_placements (proposal_id, team_id, user_id) VALUES (?, ?, ?)";
+
+    private static final String FIND_PROPOSAL_SQL =
+            "SELECT organizer_id, created_at, expires_at, unplaced_users, coverage_before, coverage_after," +
+            " required_total, local_search_improvements, filled_without_gain" +
+            " FROM formation_proposals WHERE id = ? AND expires_at > ?";
+
+    private static final String FIND_PLACEMENTS_SQL =
+            "SELECT team_id, user_id FROM formation_placements WHERE proposal_id = ? ORDER BY team_id, user_id";
+
+    // Placed users who joined a team or were deleted since, then placed teams that were deleted or
+    // no longer have a free slot for every user placed in them
+    private static final String FIND_CONFLICTS_SQL =
+            "SELECT 'USER' AS kind, p.user_id AS id FROM formation_placements p" +
+            " LEFT JOIN users u ON u.id = p.user_id AND u.deleted_at IS NULL" +
+            " WHERE p.proposal_id = ?" +
+            " AND (u.id IS NULL OR EXISTS (SELECT 1 FROM team_members m WHERE m.user_id = p.user_id))" +
+            " UNION ALL" +
+            " SELECT 'TEAM' AS kind, c.team_id AS id" +
+            " FROM (SELECT team_id, COUNT(*) AS placed FROM formation_placements WHERE proposal_id = ? GROUP BY team_id) c" +
+            " LEFT JOIN teams t ON t.id = c.team_id AND t.deleted_at IS NULL" +
+            " WHERE t.id IS NULL OR t.member_count + c.placed > t.max_members";
+
+    private static final String DELETE_SQL = "DELETE FROM formation_proposals WHERE id = ?";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM formation_proposals WHERE expires_at <= ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Transactional
+    public void save(FormationProposal proposal, int batchSize) {
+        FormationPlan plan = proposal.getPlan();
+        jdbcTemplate.update(INSERT_PROPOSAL_SQL, proposal.getId(), proposal.getOrganizerId(),
+                Timestamp.valueOf(proposal.getCreatedAt()), Timestamp.valueOf(proposal.getExpiresAt()),
+                plan.getUnplacedUsers(), plan.getCoverageBefore(), plan.getCoverageAfter(), plan.getRequiredTotal(),
+                plan.getLocalSearchImprovements(), plan.getFilledWithoutGain());
+        jdbcTemplate.batchUpdate(INSERT_PLACEMENT_SQL, plan.getPlacements(), batchSize, (ps, placement) -> {
+            ps.setString(1, proposal.getId());
+            ps.setLong(2, placement.getTeamId());
+            ps.setLong(3, placement.getUserId());
+        });
+    }
+
+    /**
+     * The proposal with its placements, or null if it does not exist or expired before now
+     */
+    @Transactional(readOnly = true)
+    public FormationProposal find(String proposalId, LocalDateTime now) {
+        List<FormationPlan.Placement> placements = new ArrayList<>();
+        List<FormationProposal> found = jdbcTemplate.query(FIND_PROPOSAL_SQL, (rs, rowNum) -> new FormationProposal(
+                proposalId, rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getTimestamp(3).toLocalDateTime(),
+                new FormationPlan(placements, rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7), rs.getInt(8),
+                        rs.getInt(9))),
+                proposalId, Timestamp.valueOf(now));
+        if (found.isEmpty()) {
+            return null;
+        }
+        placements.addAll(jdbcTemplate.query(FIND_PLACEMENTS_SQL,
+                (rs, rowNum) -> new FormationPlan.Placement(rs.getLong(1), rs.getLong(2)), proposalId));
+        return found.get(0);
+    }
+
+    /**
+     * Users and teams of the proposal whose placements no longer hold, as (kind, id) pairs
+     * with kind USER or TEAM
+     */
+    public List<Object[]> findConflicts(String proposalId) {
+        return jdbcTemplate.query(FIND_CONFLICTS_SQL,
+                (rs, rowNum) -> new Object[] { rs.getString(1), rs.getLong(2) }, proposalId, proposalId);
+    }
+
+    /**
+     * Delete the proposal and its placements, returning false if it was already gone
+     */
+    public boolean delete(String proposalId) {
+        return jdbcTemplate.update(DELETE_SQL, proposalId) > 0;
+    }
+
+    public int deleteExpired(LocalDateTime now) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,199 @@
+package com.hackmate.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Soft deletion of teams and accounts, and the set-based deletes that later purge them.
+ * Marking sets deleted_at, which hides the row from every entity query, and only touches the few
+ * rows that must change at once (memberships, pending invitations). Chat messages and invitations
+ * are then deleted in bounded chunks, each in its own short transaction, by id lists read from
+ * the (team_id, created_at), sender and invitation indexes, so no entity graph is ever loaded.
+ */
+@Repository
+public class PurgeRepository {
+
+    private static final String MARK_TEAM_SQL =
+            "UPDATE teams SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL";
+
+    // Frees the unique username and email, so the same person can sign up again before the purge
+    private static final String MARK_USER_SQL =
+            "UPDATE users SET deleted_at = ?, username = CONCAT('deleted-', id)," +
+            " email = CONCAT('deleted-', id, '@deleted.invalid'), provider_id = NULL" +
+            " WHERE id = ? AND deleted_at IS NULL";
+
+    private static final String MARK_CREATED_TEAMS_SQL =
+            "UPDATE teams SET deleted_at = ? WHERE creator_id = ? AND deleted_at IS NULL";
+
+    private static final String DELETE_TEAM_MEMBERS_SQL = "DELETE FROM team_members WHERE team_id = ?";
+
+    private static final String DELETE_CREATED_TEAMS_MEMBERS_SQL =
+            "DELETE FROM team_members WHERE team_id IN (SELECT id FROM teams WHERE creator_id = ?)";
+
+    private static final String EXPIRE_TEAM_INVITATIONS_SQL =
+            "UPDATE team_invitations SET status = 'EXPIRED' WHERE team_id = ? AND status = 'PENDING'";
+
+    private static final String EXPIRE_USER_INVITATIONS_SQL =
+            "UPDATE team_invitations SET status = 'EXPIRED' WHERE status = 'PENDING'" +
+            " AND (inviter_id = ? OR invitee_id = ? OR team_id IN (SELECT id FROM teams WHERE creator_id = ?))";
+
+    private static final String DELETED_TEAMS_SQL =
+            "SELECT id FROM teams WHERE deleted_at IS NOT NULL ORDER BY id LIMIT ?";
+
+    private static final String DELETED_USERS_SQL =
+            "SELECT id FROM users WHERE deleted_at IS NOT NULL ORDER BY id LIMIT ?";
+
+    private static final String CREATED_TEAMS_SQL = "SELECT id FROM teams WHERE creator_id = ?";
+
+    private static final String TEAM_MESSAGES_SQL =
+            "SELECT id FROM chat_messages WHERE team_id = ? ORDER BY id LIMIT ?";
+
+    private static final String SENT_MESSAGES_SQL =
+            "SELECT id FROM chat_messages WHERE sender_id = ? ORDER BY id LIMIT ?";
+
+    private static final String TEAM_INVITATIONS_SQL =
+            "SELECT id FROM team_invitations WHERE team_id = ? ORDER BY id LIMIT ?";
+
+    private static final String SENT_INVITATIONS_SQL =
+            "SELECT id FROM team_invitations WHERE inviter_id = ? ORDER BY id LIMIT ?";
+
+    private static final String RECEIVED_INVITATIONS_SQL =
+            "SELECT id FROM team_invitations WHERE invitee_id = ? ORDER BY id LIMIT ?";
+
+    private static final String DELETE_MESSAGES_SQL = "DELETE FROM chat_messages WHERE id IN (:ids)";
+
+    private static final String DELETE_INVITATIONS_SQL = "DELETE FROM team_invitations WHERE id IN (:ids)";
+
+    private static final String DELETE_TEAM_SKILLS_SQL = "DELETE FROM team_required_skills WHERE team_id = ?";
+
+    private static final String DELETE_TEAM_SQL = "DELETE FROM teams WHERE id = ? AND deleted_at IS NOT NULL";
+
+    private static final String DELETE_USER_MEMBERSHIPS_SQL = "DELETE FROM team_members WHERE user_id = ?";
+
+    private static final String DELETE_USER_SKILLS_SQL = "DELETE FROM user_skills WHERE user_id = ?";
+
+    private static final String DELETE_USER_INTERESTS_SQL = "DELETE FROM user_interests WHERE user_id = ?";
+
+    private static final String DELETE_USER_SQL = "DELETE FROM users WHERE id = ? AND deleted_at IS NOT NULL";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Hide the team, drop its memberships and expire its pending invitations; false if it was already deleted
+     */
+    @Transactional
+    public boolean markTeamDeleted(Long teamId) {
+        if (jdbcTemplate.update(MARK_TEAM_SQL, now(), teamId) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(DELETE_TEAM_MEMBERS_SQL, teamId);
+        jdbcTemplate.update(EXPIRE_TEAM_INVITATIONS_SQL, teamId);
+        return true;
+    }
+
+    /**
+     * Hide the account and every team it created, and expire the invitations they are part of.
+     * The account's username and email are replaced by placeholders derived from its id.
+     * The user's own memberships are released beforehand by {@link TeamMembershipRepository#leaveAll}.
+     */
+    @Transactional
+    public boolean markUserDeleted(Long userId) {
+        Timestamp now = now();
+        if (jdbcTemplate.update(MARK_USER_SQL, now, userId) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(MARK_CREATED_TEAMS_SQL, now, userId);
+        jdbcTemplate.update(DELETE_CREATED_TEAMS_MEMBERS_SQL, userId);
+        jdbcTemplate.update(EXPIRE_USER_INVITATIONS_SQL, userId, userId, userId);
+        return true;
+    }
+
+    public List<Long> findDeletedTeamIds(int limit) {
+        return jdbcTemplate.queryForList(DELETED_TEAMS_SQL, Long.class, limit);
+    }
+
+    public List<Long> findDeletedUserIds(int limit) {
+        return jdbcTemplate.queryForList(DELETED_USERS_SQL, Long.class, limit);
+    }
+
+    public List<Long> findTeamIdsCreatedBy(Long userId) {
+        return jdbcTemplate.queryForList(CREATED_TEAMS_SQL, Long.class, userId);
+    }
+
+    @Transactional
+    public int deleteTeamMessages(Long teamId, int limit) {
+        return deleteChunk(TEAM_MESSAGES_SQL, DELETE_MESSAGES_SQL, teamId, limit);
+    }
+
+    @Transactional
+    public int deleteSentMessages(Long userId, int limit) {
+        return deleteChunk(SENT_MESSAGES_SQL, DELETE_MESSAGES_SQL, userId, limit);
+    }
+
+    @Transactional
+    public int deleteTeamInvitations(Long teamId, int limit) {
+        return deleteChunk(TEAM_INVITATIONS_SQL, DELETE_INVITATIONS_SQL, teamId, limit);
+    }
+
+    @Transactional
+    public int deleteUserInvitations(Long userId, int limit) {
+        int deleted = deleteChunk(SENT_INVITATIONS_SQL, DELETE_INVITATIONS_SQL, userId, limit);
+        if (deleted < limit) {
+            deleted += deleteChunk(RECEIVED_INVITATIONS_SQL, DELETE_INVITATIONS_SQL, userId, limit - deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Delete the team row and its remaining small child rows once its messages and invitations are gone
+     */
+    @Transactional
+    public boolean deleteTeam(Long teamId) {
+        jdbcTemplate.update(DELETE_TEAM_MEMBERS_SQL, teamId);
+        jdbcTemplate.update(DELETE_TEAM_SKILLS_SQL, teamId);
+        return jdbcTemplate.update(DELETE_TEAM_SQL, teamId) > 0;
+    }
+
+    /**
+     * Delete the account row and its remaining small child rows once its teams, messages and invitations are gone
+     */
+    @Transactional
+    public boolean deleteUser(Long userId) {
+        jdbcTemplate.update(DELETE_USER_MEMBERSHIPS_SQL, userId);
+        jdbcTemplate.update(DELETE_USER_SKILLS_SQL, userId);
+        jdbcTemplate.update(DELETE_USER_INTERESTS_SQL, userId);
+        return jdbcTemplate.update(DELETE_USER_SQL, userId) > 0;
+    }
+
+    private int deleteChunk(String selectIdsSql, String deleteSql, Long ownerId, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(selectIdsSql, Long.class, ownerId, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return namedJdbcTemplate.update(deleteSql, new MapSqlParameterSource("ids", ids));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,78 @@
+package com.hackmate.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+
+/**
+ * Named leases in the scheduler_leases table that let one instance at a time run a scheduled job.
+ * A lease is taken or renewed with one conditional UPDATE, which only matches while the lease is
+ * held by the caller or has run out, so two instances can never both see their update succeed.
+ * The holder renews on every run; if it dies, another instance takes over once the lease expires.
+ * Expiry is computed and compared with the database clock, so clock skew between instances
+ * cannot hand a lease to two of them.
+ */
+@Repository
+public class SchedulerLeaseRepository {
+
+    // CURRENT_TIMESTAMP plus a number of milliseconds; interval arithmetic differs per database
+    private static final String POSTGRES_LEASE_END = "CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond'";
+    private static final String DEFAULT_LEASE_END = "TIMESTAMPADD(MICROSECOND, ? * 1000, CURRENT_TIMESTAMP)";
+
+    private static final String CLAIM_SQL =
+            "UPDATE scheduler_leases SET owner = ?, lease_until = %s" +
+            " WHERE name = ? AND (owner = ? OR lease_until < CURRENT_TIMESTAMP)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scheduler_leases (name, owner, lease_until) VALUES (?, ?, %s)";
+
+    private static final String RELEASE_SQL =
+            "UPDATE scheduler_leases SET lease_until = CURRENT_TIMESTAMP WHERE name = ? AND owner = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private String claimSql;
+    private String insertSql;
+
+    @PostConstruct
+    public void init() throws MetaDataAccessException {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        String leaseEnd = "PostgreSQL".equals(product) ? POSTGRES_LEASE_END : DEFAULT_LEASE_END;
+        claimSql = String.format(CLAIM_SQL, leaseEnd);
+        insertSql = String.format(INSERT_SQL, leaseEnd);
+    }
+
+    /**
+     * Take or renew the lease for the given time; false if another owner holds it
+     */
+    public boolean tryAcquire(String name, String owner, Duration lease) {
+        long millis = lease.toMillis();
+        if (jdbcTemplate.update(claimSql, owner, millis, name, owner) > 0) {
+            return true;
+        }
+        try {
+            // First run anywhere: the row does not exist yet
+            return jdbcTemplate.update(insertSql, name, owner, millis) > 0;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Let the lease lapse at once so another instance can take over without waiting
+     */
+    public void release(String name, String owner) {
+        jdbcTemplate.update(RELEASE_SQL, name, owner);
+    }
+}
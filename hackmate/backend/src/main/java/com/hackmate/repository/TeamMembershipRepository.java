@@ -0,0 +1,152 @@
+package com.hackmate.repository;
+
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Joins and leaves as two statements in one transaction: a conditional UPDATE of the team's
+ * member_count, which takes the team row lock and only succeeds while there is a free slot, and
+ * the team_members insert or delete. Concurrent joiners of the same team queue on the row lock
+ * instead of all passing a "members.size() < maxMembers" check and overfilling the team.
+ */
+@Repository
+public class TeamMembershipRepository {
+
+    public enum JoinResult { JOINED, FULL, ALREADY_MEMBER }
+
+    private static final String RESERVE_SLOT_SQL =
+            "UPDATE teams SET member_count = member_count + 1" +
+            " WHERE id = ? AND member_count < max_members AND deleted_at IS NULL";
+
+    private static final String RELEASE_SLOT_SQL =
+            "UPDATE teams SET member_count = member_count - 1 WHERE id = ? AND member_count > 0";
+
+    private static final String INSERT_MEMBER_SQL =
+            "INSERT INTO team_members (team_id, user_id) VALUES (?, ?)";
+
+    private static final String DELETE_MEMBER_SQL =
+            "DELETE FROM team_members WHERE team_id = ? AND user_id = ?";
+
+    private static final String RELEASE_ALL_SLOTS_SQL =
+            "UPDATE teams SET member_count = member_count - 1" +
+            " WHERE member_count > 0 AND id IN (SELECT team_id FROM team_members WHERE user_id = ?)";
+
+    private static final String DELETE_ALL_MEMBERSHIPS_SQL =
+            "DELETE FROM team_members WHERE user_id = ?";
+
+    // Answered from the (team_id, user_id) primary key alone
+    private static final String EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM team_members WHERE team_id = ? AND user_id = ?)";
+
+    private static final String ALL_MEMBERSHIPS_SQL =
+            "SELECT team_id, user_id FROM team_members ORDER BY team_id, user_id";
+
+    private static final String TEAM_IDS_OF_USER_SQL =
+            "SELECT team_id FROM team_members WHERE user_id = ? ORDER BY team_id";
+
+    private static final String USER_IDS_OF_TEAM_SQL =
+            "SELECT user_id FROM team_members WHERE team_id = ? ORDER BY user_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Add the user to the team if it has a free slot and they are not already a member.
+     * The team and user entities are reloaded afterwards so their collections and count are current.
+     */
+    @Transactional
+    public JoinResult join(Team team, User user) {
+        // Checked first so a member never gets FULL and the counter is not moved for nothing
+        if (exists(team.getId(), user.getId())) {
+            return JoinResult.ALREADY_MEMBER;
+        }
+        if (jdbcTemplate.update(RESERVE_SLOT_SQL, team.getId()) == 0) {
+            return JoinResult.FULL;
+        }
+        try {
+            jdbcTemplate.update(INSERT_MEMBER_SQL, team.getId(), user.getId());
+        } catch (DuplicateKeyException ex) {
+            // A concurrent join of the same user won; give the reserved slot back
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return JoinResult.ALREADY_MEMBER;
+        }
+        refresh(team, user);
+        return JoinResult.JOINED;
+    }
+
+    /**
+     * Remove the user from the team, returning false if they were not a member
+     */
+    @Transactional
+    public boolean leave(Team team, User user) {
+        if (jdbcTemplate.update(DELETE_MEMBER_SQL, team.getId(), user.getId()) == 0) {
+            return false;
+        }
+        jdbcTemplate.update(RELEASE_SLOT_SQL, team.getId());
+        refresh(team, user);
+        return true;
+    }
+
+    /**
+     * Remove the user from every team, freeing their slots; used before deleting the account since
+     * the foreign key cascade would drop the memberships without touching the counts
+     */
+    @Transactional
+    public void leaveAll(Long userId) {
+        jdbcTemplate.update(RELEASE_ALL_SLOTS_SQL, userId);
+        jdbcTemplate.update(DELETE_ALL_MEMBERSHIPS_SQL, userId);
+    }
+
+    public boolean exists(Long teamId, Long userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, teamId, userId));
+    }
+
+    public List<Long> findTeamIdsByUserId(Long userId) {
+        return jdbcTemplate.queryForList(TEAM_IDS_OF_USER_SQL, Long.class, userId);
+    }
+
+    public List<Long> findUserIdsByTeamId(Long teamId) {
+        return jdbcTemplate.queryForList(USER_IDS_OF_TEAM_SQL, Long.class, teamId);
+    }
+
+    /**
+     * Hand every (team id, user id) pair to the consumer, grouped by team
+     */
+    @Transactional(readOnly = true)
+    public void forEachMembership(BiConsumer<Long, Long> consumer) {
+        jdbcTemplate.query(ALL_MEMBERSHIPS_SQL, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private void refresh(Team team, User user) {
+        if (entityManager.contains(team)) {
+            entityManager.refresh(team);
+        }
+        if (entityManager.contains(user)) {
+            entityManager.refresh(user);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hackmate.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides who may use the organizer endpoints. Organizers are configured by email
+ * since accounts only carry ROLE_USER.
+ */
+@Component
+public class OrganizerAccess {
+
+    @Value("${app.organizers.emails:}")
+    private List<String> organizerEmails;
+
+    private Set<String> organizers;
+
+    @PostConstruct
+    public void init() {
+        organizers = organizerEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    public boolean isOrganizer(UserPrincipal userPrincipal) {
+        return userPrincipal != null && userPrincipal.getEmail() != null
+                && organizers.contains(userPrincipal.getEmail().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,159 @@
+package com.hackmate.service;
+
+import com.hackmate.dto.BulkInvitationResult;
+import com.hackmate.dto.BulkInvitationResult.Status;
+import com.hackmate.dto.TeamView;
+import com.hackmate.model.Team;
+import com.hackmate.model.TeamInvitation;
+import com.hackmate.model.User;
+import com.hackmate.repository.TeamInvitationRepository;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Invites many users or email addresses to one team in a single call. Members come from the
+ * cached team snapshot and the team's pending invitees from one query; each chunk of recipients
+ * then costs one query to resolve users and one for pending email invitations, and the new
+ * invitations are saved as a batch. No more invitations are sent than the team has free slots.
+ */
+@Service
+public class BulkInvitationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkInvitationService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    @Autowired
+    private TeamInvitationRepository invitationRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.invitations.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Transactional
+    public BulkInvitationResult invite(TeamView teamView, Long inviterId, List<Long> inviteeIds, List<String> inviteeEmails) {
+        Team team = teamRepository.getReferenceById(teamView.getId());
+        User inviter = userRepository.getReferenceById(inviterId);
+        BulkInvitationResult result = new BulkInvitationResult(teamView.getId());
+
+        Set<Long> members = new HashSet<>();
+        for (TeamView.Member member : teamView.getMembers()) {
+            members.add(member.getId());
+        }
+        Set<Long> pendingUsers = new HashSet<>();
+        for (Object[] row : invitationRepository.findPendingInviteePairsByTeamIds(List.of(teamView.getId()))) {
+            pendingUsers.add((Long) row[1]);
+        }
+        int[] freeSlots = { teamView.getMaxMembers() - teamView.getMemberCount() };
+
+        Set<Long> seenIds = new HashSet<>();
+        for (int from = 0; from < inviteeIds.size(); from += chunkSize) {
+            List<Long> chunk = inviteeIds.subList(from, Math.min(from + chunkSize, inviteeIds.size()));
+            List<Long> ids = chunk.stream().filter(Objects::nonNull).toList();
+            Set<Long> existing = ids.isEmpty() ? Collections.emptySet() : new HashSet<>(userRepository.findExistingIds(ids));
+
+            List<TeamInvitation> batch = new ArrayList<>();
+            for (Long inviteeId : chunk) {
+                Status status;
+                if (inviteeId == null || !seenIds.add(inviteeId)) {
+                    status = Status.DUPLICATE;
+                } else if (!existing.contains(inviteeId)) {
+                    status = Status.UNKNOWN_USER;
+                } else {
+                    status = check(inviteeId, false, members, pendingUsers, freeSlots);
+                }
+                if (status == Status.SENT) {
+                    batch.add(pending(new TeamInvitation(team, inviter, userRepository.getReferenceById(inviteeId))));
+                }
+                result.add(inviteeId, null, status);
+            }
+            invitationRepository.saveAll(batch);
+        }
+
+        Set<String> seenEmails = new HashSet<>();
+        for (int from = 0; from < inviteeEmails.size(); from += chunkSize) {
+            List<String> chunk = new ArrayList<>();
+            for (String email : inviteeEmails.subList(from, Math.min(from + chunkSize, inviteeEmails.size()))) {
+                chunk.add(email == null ? null : email.trim());
+            }
+            List<String> valid = new ArrayList<>();
+            for (String email : chunk) {
+                if (email != null && EMAIL.matcher(email).matches()) {
+                    valid.add(email);
+                }
+            }
+            Set<String> pendingEmails = new HashSet<>();
+            Map<String, Long> userIds = new HashMap<>();
+            if (!valid.isEmpty()) {
+                for (String email : invitationRepository.findPendingInviteeEmails(teamView.getId(), valid)) {
+                    pendingEmails.add(email.toLowerCase(Locale.ROOT));
+                }
+                for (Object[] row : userRepository.findIdsByEmailIn(valid)) {
+                    userIds.put(((String) row[1]).toLowerCase(Locale.ROOT), (Long) row[0]);
+                }
+            }
+
+            List<TeamInvitation> batch = new ArrayList<>();
+            for (String email : chunk) {
+                String key = email == null ? null : email.toLowerCase(Locale.ROOT);
+                Status status;
+                if (email == null || !EMAIL.matcher(email).matches()) {
+                    status = Status.INVALID_EMAIL;
+                } else if (!seenEmails.add(key)) {
+                    status = Status.DUPLICATE;
+                } else {
+                    // An address of a registered user is checked against their membership too
+                    Long userId = userIds.get(key);
+                    status = check(userId, pendingEmails.contains(key), members, pendingUsers, freeSlots);
+                }
+                if (status == Status.SENT) {
+                    batch.add(pending(new TeamInvitation(team, inviter, email)));
+                }
+                result.add(null, email, status);
+            }
+            invitationRepository.saveAll(batch);
+        }
+
+        logger.info("Bulk invitation to team {}: {} sent, {} skipped",
+                teamView.getId(), result.getSent(), result.getSkipped());
+        return result;
+    }
+
+    private static Status check(Long userId, boolean invitedByEmail, Set<Long> members, Set<Long> pendingUsers,
+                                int[] freeSlots) {
+        if (userId != null && members.contains(userId)) {
+            return Status.ALREADY_MEMBER;
+        }
+        if (invitedByEmail || (userId != null && pendingUsers.contains(userId))) {
+            return Status.ALREADY_INVITED;
+        }
+        if (freeSlots[0] <= 0) {
+            return Status.TEAM_FULL;
+        }
+        freeSlots[0]--;
+        if (userId != null) {
+            pendingUsers.add(userId);
+        }
+        return Status.SENT;
+    }
+
+    private static TeamInvitation pending(TeamInvitation invitation) {
+        invitation.setStatus(TeamInvitation.InvitationStatus.PENDING);
+        invitation.setInvitationToken(UUID.randomUUID().toString());
+        return invitation;
+    }
+}
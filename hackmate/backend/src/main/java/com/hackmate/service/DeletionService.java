@@ -0,0 +1,117 @@
+package com.hackmate.service;
+
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
+import com.hackmate.repository.PurgeRepository;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.PopularSkillSketch;
+import com.hackmate.service.matching.RecommendationCache;
+import com.hackmate.service.matching.TeamSkillIndex;
+import com.hackmate.service.matching.TrendingDomainCounter;
+import com.hackmate.service.matching.UserSimilarityIndex;
+import com.hackmate.service.search.AutocompleteIndex;
+import com.hackmate.service.search.TeamSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes teams and accounts by soft-deleting them, which takes a few single-row statements,
+ * taking them out of the in-memory indexes and leaving their chat history and invitations to
+ * {@link PurgeJob}. Teams a deleted user was a member of are re-indexed without them; the
+ * discovery index follows the skill index's change events.
+ */
+@Service
+public class DeletionService {
+
+    @Autowired
+    private PurgeRepository purgeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private PurgeJob purgeJob;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private TeamViewCache teamViewCache;
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private TrendingDomainCounter trendingDomainCounter;
+
+    @Autowired
+    private PopularSkillSketch popularSkillSketch;
+
+    @Autowired
+    private TeamSearchIndex teamSearchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private UserSimilarityIndex userSimilarityIndex;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    public void deleteTeam(Team team) {
+        if (purgeRepository.markTeamDeleted(team.getId())) {
+            teamRemoved(team);
+        }
+        purgeJob.requestPurge();
+    }
+
+    public void deleteUser(User user) {
+        List<Long> teamIds = membershipService.teamIdsOf(user.getId());
+        // Read before marking, which hides them from entity queries
+        List<Team> createdTeams = teamRepository.findByCreator(user);
+
+        // Free the user's slots in other teams first, re-indexing those teams while the user's
+        // skills can still be read
+        membershipService.leaveAll(user.getId());
+        Set<Long> createdTeamIds = new HashSet<>();
+        for (Team team : createdTeams) {
+            createdTeamIds.add(team.getId());
+        }
+        for (Long teamId : teamIds) {
+            if (!createdTeamIds.contains(teamId)) {
+                teamSkillIndex.memberLeft(teamId, user.getId());
+            }
+        }
+        teamViewCache.invalidateAll(teamIds);
+        if (purgeRepository.markUserDeleted(user.getId())) {
+            for (Team team : createdTeams) {
+                teamRemoved(team);
+            }
+            userSimilarityIndex.remove(user.getId());
+            recommendationCache.invalidateUser(user.getId());
+            autocompleteIndex.recordChange(AutocompleteIndex.Kind.SKILL, user.getSkills(), Collections.emptySet());
+            autocompleteIndex.recordChange(AutocompleteIndex.Kind.INTEREST, user.getInterests(), Collections.emptySet());
+        }
+        purgeJob.requestPurge();
+    }
+
+    private void teamRemoved(Team team) {
+        Long id = team.getId();
+        membershipService.teamDeleted(id);
+        teamViewCache.invalidate(id);
+        teamSkillIndex.remove(id);
+        trendingDomainCounter.recordDeleted(team.getProjectDomain(), team.getCreatedAt());
+        popularSkillSketch.recordChange(team.getRequiredSkills(), Collections.emptySet());
+        teamSearchIndex.remove(id);
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.SKILL, team.getRequiredSkills(), Collections.emptySet());
+        autocompleteIndex.recordChange(AutocompleteIndex.Kind.DOMAIN, Collections.singleton(team.getProjectDomain()),
+                Collections.emptySet());
+    }
+}
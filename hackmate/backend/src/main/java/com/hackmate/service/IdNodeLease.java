@@ -0,0 +1,112 @@
+package com.hackmate.service;
+
+import com.hackmate.model.id.SnowflakeIdGenerator;
+import com.hackmate.model.id.SnowflakeIds;
+import com.hackmate.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Decides this instance's Snowflake node id before Hibernate builds its id generators. A node id
+ * set with app.id.node-id (ID_NODE_ID) is used as is. Otherwise, with app.id.lease-node on, the
+ * instance claims the first free "id-node-N" lease in scheduler_leases and keeps renewing it, so
+ * no two running instances share a node; startup fails if every node is taken. Without either,
+ * as in development, the node is 0.
+ */
+@Component
+public class IdNodeLease implements HibernatePropertiesCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdNodeLease.class);
+
+    private static final String LEASE_PREFIX = "id-node-";
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Value("${app.id.node-id:}")
+    private String configuredNode;
+
+    @Value("${app.id.lease-node:false}")
+    private boolean leaseNode;
+
+    @Value("${app.id.lease-ms:600000}")
+    private long leaseMs;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private Integer nodeId;
+    private String lease;
+
+    /**
+     * Called while the entity manager factory is built, after the schema migrations ran
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(SnowflakeIdGenerator.NODE_ID_SETTING, getNodeId());
+    }
+
+    public synchronized int getNodeId() {
+        if (nodeId == null) {
+            nodeId = resolve();
+        }
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${app.id.lease-renew-ms:60000}",
+               initialDelayString = "${app.id.lease-renew-ms:60000}")
+    public void renew() {
+        String held = lease;
+        if (held == null) {
+            return;
+        }
+        try {
+            if (!schedulerLeaseRepository.tryAcquire(held, owner, Duration.ofMillis(leaseMs))) {
+                // Another instance took the node after the lease ran out; ids may now collide
+                logger.error("Lost the {} lease; restart this instance to claim a free node id", held);
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Could not renew the {} lease: {}", held, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (lease == null) {
+            return;
+        }
+        try {
+            schedulerLeaseRepository.release(lease, owner);
+        } catch (DataAccessException ex) {
+            logger.debug("Could not release the {} lease: {}", lease, ex.getMessage());
+        }
+    }
+
+    private int resolve() {
+        if (!configuredNode.isBlank()) {
+            return Integer.parseInt(configuredNode.trim());
+        }
+        if (!leaseNode) {
+            return 0;
+        }
+        for (int node = 0; node <= SnowflakeIds.MAX_NODE; node++) {
+            if (schedulerLeaseRepository.tryAcquire(LEASE_PREFIX + node, owner, Duration.ofMillis(leaseMs))) {
+                lease = LEASE_PREFIX + node;
+                logger.info("Claimed id node {}", node);
+                return node;
+            }
+        }
+        throw new IllegalStateException("All " + (SnowflakeIds.MAX_NODE + 1)
+                + " id nodes are leased by running instances; set ID_NODE_ID or stop an instance");
+    }
+}
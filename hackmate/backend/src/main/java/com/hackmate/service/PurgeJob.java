@@ -0,0 +1,136 @@
+package com.hackmate.service;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.PurgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Purges soft-deleted teams and accounts in the background. A deletion request wakes it up
+ * through {@link #requestPurge}; the schedule picks up anything a wake-up missed or a failed run
+ * left behind. Messages and invitations go in chunks of chunk-size rows, each its own
+ * transaction, so a team with a long chat history never holds locks or heap for long.
+ */
+@Component
+public class PurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeJob.class);
+
+    @Autowired
+    private PurgeRepository purgeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.purge.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.purge.batch-size:100}")
+    private int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    private Counter purgedTeams;
+    private Counter purgedUsers;
+    private Counter purgedMessages;
+    private Counter purgedInvitations;
+
+    @PostConstruct
+    public void init() {
+        purgedTeams = meterRegistry.counter("hackmate.purge.rows", "table", "teams");
+        purgedUsers = meterRegistry.counter("hackmate.purge.rows", "table", "users");
+        purgedMessages = meterRegistry.counter("hackmate.purge.rows", "table", "chat_messages");
+        purgedInvitations = meterRegistry.counter("hackmate.purge.rows", "table", "team_invitations");
+    }
+
+    /**
+     * Start a purge on the async executor, or make the running one go round again
+     */
+    @Async
+    public void requestPurge() {
+        run();
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval-ms:60000}",
+               initialDelayString = "${app.purge.initial-delay-ms:30000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void run() {
+        requested.set(true);
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (requested.getAndSet(false)) {
+                purgePending();
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void purgePending() {
+        try {
+            for (Long teamId : purgeRepository.findDeletedTeamIds(batchSize)) {
+                purgeTeam(teamId);
+            }
+            for (Long userId : purgeRepository.findDeletedUserIds(batchSize)) {
+                // A user's teams reference them as creator, so those go first
+                for (Long teamId : purgeRepository.findTeamIdsCreatedBy(userId)) {
+                    purgeTeam(teamId);
+                }
+                purgeUser(userId);
+            }
+        } catch (DataAccessException ex) {
+            // Everything done so far is committed; the next run carries on from there
+            logger.error("Purge of deleted teams and accounts failed", ex);
+        }
+    }
+
+    private void purgeTeam(Long teamId) {
+        long messages = drain(limit -> purgeRepository.deleteTeamMessages(teamId, limit), purgedMessages);
+        drain(limit -> purgeRepository.deleteTeamInvitations(teamId, limit), purgedInvitations);
+        if (purgeRepository.deleteTeam(teamId)) {
+            purgedTeams.increment();
+            logger.info("Purged team {} with {} chat messages", teamId, messages);
+        }
+    }
+
+    private void purgeUser(Long userId) {
+        long messages = drain(limit -> purgeRepository.deleteSentMessages(userId, limit), purgedMessages);
+        drain(limit -> purgeRepository.deleteUserInvitations(userId, limit), purgedInvitations);
+        if (purgeRepository.deleteUser(userId)) {
+            purgedUsers.increment();
+            logger.info("Purged user {} with {} chat messages", userId, messages);
+        }
+    }
+
+    /**
+     * Delete chunk after chunk until one comes back short
+     */
+    private long drain(ChunkDelete delete, Counter counter) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = delete.apply(chunkSize);
+            total += deleted;
+            counter.increment(deleted);
+        } while (deleted == chunkSize);
+        return total;
+    }
+
+    private interface ChunkDelete {
+        int apply(int limit);
+    }
+}
@@ -1,250 +1,415 @@
 package com.hackmate.service;
 
-import com.hackmate.entity.Team;
-import com.hackmate.entity.User;
-import com.hackmate.entity.UserSkill;
+import com.hackmate.dto.CursorSlice;
+import com.hackmate.dto.PageCursor;
+import com.hackmate.dto.SkillGapBundleDTO;
+import com.hackmate.dto.TeamDiscoveryDTO;
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
 import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.TeamScrollRepository;
 import com.hackmate.repository.UserRepository;
+import com.hackmate.service.matching.CandidateChunk;
+import com.hackmate.service.matching.ParallelScoringEngine;
+import com.hackmate.service.matching.PopularSkillSketch;
+import com.hackmate.service.matching.RecommendationCache;
+import com.hackmate.service.matching.RecommendationCache.LoadedRecommendations;
+import com.hackmate.service.matching.ScoredMatch;
+import com.hackmate.service.matching.SkillDictionary;
+import com.hackmate.service.matching.SkillGapBundler;
+import com.hackmate.service.matching.SkillVector;
+import com.hackmate.service.matching.TeamCandidateSnapshot;
+import com.hackmate.service.matching.TeamDiscoveryIndex;
+import com.hackmate.service.matching.TeamSkillIndex;
+import com.hackmate.service.matching.TopKCollector;
+import com.hackmate.service.matching.TrendingDomainCounter;
+import com.hackmate.service.matching.UserCandidateStream;
+import com.hackmate.service.matching.UserMatchScorer;
+import com.hackmate.service.matching.UserSimilarityIndex;
+import com.hackmate.service.search.AutocompleteIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class TeamMatchingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TeamMatchingService.class);
+
     @Autowired
     private TeamRepository teamRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private UserCandidateStream userCandidateStream;
+
+    @Autowired
+    private ParallelScoringEngine scoringEngine;
+
+    @Autowired
+    private TeamCandidateSnapshot teamCandidateSnapshot;
+
+    @Autowired
+    private UserSimilarityIndex userSimilarityIndex;
+
+    @Autowired
+    private SkillGapBundler skillGapBundler;
+
+    @Autowired
+    private TrendingDomainCounter trendingDomainCounter;
+
+    @Autowired
+    private PopularSkillSketch popularSkillSketch;
+
+    @Autowired
+    private TeamDiscoveryIndex teamDiscoveryIndex;
+
+    @Autowired
+    private TeamScrollRepository teamScrollRepository;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private TeamDiscoveryAssembler teamDiscoveryAssembler;
+
+    @Value("${app.matching.users.streaming:true}")
+    private boolean streamUserCandidates;
+
+    @Value("${app.matching.users.chunk-size:4096}")
+    private int candidateChunkSize;
+
     /**
      * Find teams that match user's skills and interests
      */
     public List<Team> findMatchingTeams(Long userId, int limit) {
+        return loadTeamsInOrder(getRecommendedTeamMatches(userId, limit));
+    }
+
+    /**
+     * Matching teams as discovery DTOs carrying their match score, built without loading entities
+     */
+    public List<TeamDiscoveryDTO> findMatchingTeamSummaries(Long userId, int limit) {
+        List<ScoredMatch> matches = getRecommendedTeamMatches(userId, limit);
+        Map<Long, Double> scores = new HashMap<>();
+        for (ScoredMatch match : matches) {
+            scores.put(match.getId(), match.getScore());
+        }
+        List<TeamDiscoveryDTO> teams = teamDiscoveryAssembler.assemble(matches.stream()
+                .map(ScoredMatch::getId)
+                .collect(Collectors.toList()));
+        for (TeamDiscoveryDTO team : teams) {
+            team.setMatchScore(scores.get(team.getId()));
+        }
+        return teams;
+    }
+
+    /**
+     * Ranked team ids and scores for a user, served from the recommendation cache
+     */
+    public List<ScoredMatch> getRecommendedTeamMatches(Long userId, int limit) {
+        return recommendationCache.get(userId, limit, this::scoreTeamsForUser);
+    }
+
+    /**
+     * Score open teams for a user from scratch
+     */
+    private LoadedRecommendations scoreTeamsForUser(Long userId, int limit) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get user's skills
-        Set<String> userSkills = user.getSkills().stream()
-                .map(UserSkill::getSkillName)
-                .collect(Collectors.toSet());
-
-        // Get user's interests
-        Set<String> userInterests = user.getInterests().stream()
-                .map(interest -> interest.getInterestName())
-                .collect(Collectors.toSet());
-
-        // Find all open teams that user is not already a member of
-        List<Team> availableTeams = teamRepository.findOpenTeamsNotMemberOf(userId);
-
-        // Calculate match scores and sort
-        List<TeamMatchScore> matchScores = availableTeams.stream()
-                .map(team -> new TeamMatchScore(team, calculateMatchScore(team, userSkills, userInterests)))
-                .filter(score -> score.getScore() > 0) // Only include teams with some match
-                .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        SkillVector userSkills = skillDictionary.vectorOf(user.getSkills());
+        SkillVector userInterests = skillDictionary.vectorOf(user.getInterests());
 
-        return matchScores.stream()
-                .map(TeamMatchScore::getTeam)
-                .collect(Collectors.toList());
+        // Candidates come from the skill/domain postings of the index, best first
+        List<ScoredMatch> matches = teamSkillIndex.topMatches(userId, userSkills, userInterests, limit);
+
+        return new LoadedRecommendations(matches, userSkills, userInterests);
     }
 
     /**
      * Find users that would be good matches for a team
      */
     public List<User> findMatchingUsers(Long teamId, int limit) {
+        // Serve the last precompute run unless the team changed since
+        List<ScoredMatch> precomputed = teamCandidateSnapshot.get(teamId, limit);
+        if (precomputed != null) {
+            return loadUsersInOrder(precomputed);
+        }
+
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RuntimeException("Team not found"));
 
-        // Get team's required skills
-        Set<String> requiredSkills = team.getRequiredSkills().stream()
-                .map(skill -> skill.getSkillName())
-                .collect(Collectors.toSet());
-
-        // Get current team member IDs
-        Set<Long> currentMemberIds = team.getMembers().stream()
-                .map(member -> member.getUser().getId())
-                .collect(Collectors.toSet());
-
-        // Find all users not in the team
-        List<User> availableUsers = userRepository.findUsersNotInTeam(teamId);
-
-        // Calculate match scores and sort
-        List<UserMatchScore> matchScores = availableUsers.stream()
-                .map(user -> new UserMatchScore(user, calculateUserMatchScore(user, requiredSkills, team.getProjectDomain())))
-                .filter(score -> score.getScore() > 0)
-                .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Get team's required skills and domain as dictionary ids
+        UserMatchScorer scorer = new UserMatchScorer(
+                skillDictionary.vectorOf(team.getRequiredSkills()),
+                skillDictionary.idOf(team.getProjectDomain()));
+
+        // Score users not in the team chunk by chunk, keeping only the best ones
+        TopKCollector topK = new TopKCollector(limit);
+        long[] stats = new long[2]; // wall time, max partitions
+        Consumer<CandidateChunk> scoreChunk = chunk -> {
+            ParallelScoringEngine.ScoringRun run = scoringEngine.score("users", chunk.size(), limit,
+                    (from, to, local) -> scorer.scoreInto(chunk, from, to, local));
+            topK.merge(run.getTopK());
+            stats[0] += run.getWallNanos();
+            stats[1] = Math.max(stats[1], run.getPartitions());
+        };
+
+        if (streamUserCandidates) {
+            userCandidateStream.forEachChunkNotInTeam(teamId, candidateChunkSize, scoreChunk);
+        } else {
+            CandidateChunk chunk = new CandidateChunk(candidateChunkSize);
+            for (User user : userRepository.findUsersNotInTeam(teamId)) {
+                if (chunk.isFull()) {
+                    scoreChunk.accept(chunk);
+                    chunk.clear();
+                }
+                chunk.begin(user.getId());
+                user.getSkills().forEach(skill -> chunk.addSkill(skillDictionary.idOf(skill)));
+                user.getInterests().forEach(interest -> chunk.addInterest(skillDictionary.idOf(interest)));
+            }
+            scoreChunk.accept(chunk);
+        }
+        logger.debug("Scored candidate users for team {} in {} us with up to {} partitions",
+                teamId, stats[0] / 1000, stats[1]);
+
+        return loadUsersInOrder(topK.toSortedMatches());
+    }
 
-        return matchScores.stream()
-                .map(UserMatchScore::getUser)
+    /**
+     * Alternative groups of users that together cover the required skills no member has yet
+     */
+    public List<SkillGapBundleDTO> findGapBundles(Long teamId, int bundleCount, int maxSize) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new RuntimeException("Team not found"));
+
+        // A bundle never needs more people than the team can still take
+        int freeSlots = team.getMaxMembers() - team.getMemberCount();
+        int bundleSize = Math.min(maxSize, freeSlots);
+
+        List<SkillGapBundleDTO> bundles = new ArrayList<>();
+        for (SkillGapBundler.GapBundle bundle : skillGapBundler.bundles(teamId, bundleCount, bundleSize)) {
+            bundles.add(new SkillGapBundleDTO(
+                    loadUsersById(bundle.getUserIds()),
+                    skillNames(bundle.getCovered()),
+                    skillNames(bundle.getUncovered())));
+        }
+        return bundles;
+    }
+
+    private List<String> skillNames(SkillVector skills) {
+        return Arrays.stream(skills.toArray())
+                .mapToObj(skillDictionary::nameOf)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Users with skills and interests most like the given user's
+     */
+    public List<User> findSimilarUsers(Long userId, int limit) {
+        return loadUsersInOrder(userSimilarityIndex.similarUsers(userId, limit));
+    }
+
+    /**
+     * Users sharing the given user's interests who bring skills the user lacks
+     */
+    public List<User> findComplementaryUsers(Long userId, int limit) {
+        return loadUsersInOrder(userSimilarityIndex.complementaryUsers(userId, limit));
+    }
+
     /**
      * Get recommended teams for discovery page with filtering
      */
-    public Page<Team> getRecommendedTeams(Long userId, String domain, List<String> skills, 
-                                         String sortBy, Pageable pageable) {
-        User user = null;
-        if (userId != null) {
-            user = userRepository.findById(userId).orElse(null);
+    public Page<TeamDiscoveryDTO> getRecommendedTeams(Long userId, String domain, List<String> skills, 
+                                                     String sortBy, Pageable pageable) {
+        TeamDiscoveryIndex.SortKey sortKey = discoverySortKey(pageable.getSort());
+        if (sortKey != null && teamDiscoveryIndex.isReady()) {
+            Sort.Order order = pageable.getSort().iterator().hasNext()
+                    ? pageable.getSort().iterator().next() : Sort.Order.desc("createdAt");
+            TeamDiscoveryIndex.SearchResult result = teamDiscoveryIndex.search(
+                    userId, domain, skills, sortKey, order.isAscending(),
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(teamDiscoveryAssembler.assemble(result.getTeamIds()), pageable, result.getTotal());
         }
 
         // Build dynamic query based on filters
+        Page<Team> teams;
         if (domain != null && !domain.isEmpty() && skills != null && !skills.isEmpty()) {
-            return teamRepository.findOpenTeamsByDomainAndSkills(domain, skills, userId, pageable);
+            teams = teamRepository.findOpenTeamsByDomainAndSkills(domain, skills, userId, pageable);
         } else if (domain != null && !domain.isEmpty()) {
-            return teamRepository.findOpenTeamsByDomain(domain, userId, pageable);
+            teams = teamRepository.findOpenTeamsByDomain(domain, userId, pageable);
         } else if (skills != null && !skills.isEmpty()) {
-            return teamRepository.findOpenTeamsBySkills(skills, userId, pageable);
+            teams = teamRepository.findOpenTeamsBySkills(skills, userId, pageable);
         } else {
-            return teamRepository.findOpenTeamsNotMemberOf(userId, pageable);
+            teams = teamRepository.findOpenTeamsNotMemberOf(userId, pageable);
         }
+        List<Long> ids = teams.getContent().stream().map(Team::getId).collect(Collectors.toList());
+        return new PageImpl<>(teamDiscoveryAssembler.assemble(ids), pageable, teams.getTotalElements());
     }
 
     /**
-     * Calculate match score between a team and user's skills/interests
+     * Keyset page of the discover listing, continuing after the cursor when one is given.
+     * Served from the discovery index once it is built, from a keyset query before that.
      */
-    private double calculateMatchScore(Team team, Set<String> userSkills, Set<String> userInterests) {
-        double score = 0.0;
-
-        // Get team's required skills
-        Set<String> requiredSkills = team.getRequiredSkills().stream()
-                .map(skill -> skill.getSkillName())
-                .collect(Collectors.toSet());
-
-        // Skill match score (70% weight)
-        if (!requiredSkills.isEmpty()) {
-            long matchingSkills = requiredSkills.stream()
-                    .mapToLong(skill -> userSkills.contains(skill) ? 1 : 0)
-                    .sum();
-            double skillMatchRatio = (double) matchingSkills / requiredSkills.size();
-            score += skillMatchRatio * 0.7;
+    public CursorSlice<TeamDiscoveryDTO> scrollRecommendedTeams(Long userId, String domain, List<String> skills,
+                                                                String sortBy, boolean ascending, PageCursor cursor,
+                                                                int size) {
+        TeamDiscoveryIndex.SortKey sortKey = discoverySortKey(Sort.by(sortBy));
+        if (sortKey == null || !TeamScrollRepository.SORT_PROPERTIES.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortBy);
         }
-
-        // Domain/Interest match score (20% weight)
-        if (team.getProjectDomain() != null && userInterests.contains(team.getProjectDomain())) {
-            score += 0.2;
+        if (cursor != null && !cursor.matches(sortBy, ascending)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
         }
 
-        // Team activity and availability score (10% weight)
-        double availabilityScore = calculateAvailabilityScore(team);
-        score += availabilityScore * 0.1;
-
-        return score;
+        List<Long> ids;
+        if (teamDiscoveryIndex.isReady()) {
+            long afterValue = 0;
+            if (cursor != null) {
+                try {
+                    afterValue = sortKey == TeamDiscoveryIndex.SortKey.CREATED_AT
+                            ? LocalDateTime.parse(cursor.getValue()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                            : Long.parseLong(cursor.getValue());
+                } catch (RuntimeException ex) {
+                    throw new IllegalArgumentException("Invalid cursor", ex);
+                }
+            }
+            ids = teamDiscoveryIndex.scroll(userId, domain, skills, sortKey, ascending,
+                    afterValue, cursor != null ? cursor.getId() : null, size + 1);
+        } else {
+            TeamScrollRepository.Filter filter = new TeamScrollRepository.Filter()
+                    .domain(domain != null && !domain.isEmpty() ? domain : null)
+                    .requiringAnySkill(skills)
+                    .availableFor(userId);
+            ids = teamScrollRepository.scroll(filter, sortBy, ascending, cursor, size + 1).stream()
+                    .map(Team::getId)
+                    .collect(Collectors.toList());
+        }
+        return CursorSlice.of(teamDiscoveryAssembler.assemble(ids), size, team -> new PageCursor(sortBy, ascending,
+                sortKey == TeamDiscoveryIndex.SortKey.CREATED_AT
+                        ? team.getCreatedAt().toString() : String.valueOf(team.getMaxMembers()),
+                team.getId()));
     }
 
     /**
-     * Calculate match score for a user against team requirements
+     * Most used skills, interests or domains starting with the prefix; every kind when kind is null
      */
-    private double calculateUserMatchScore(User user, Set<String> requiredSkills, String projectDomain) {
-        double score = 0.0;
-
-        // Get user's skills
-        Set<String> userSkills = user.getSkills().stream()
-                .map(UserSkill::getSkillName)
-                .collect(Collectors.toSet());
-
-        // Skill match score (80% weight)
-        if (!requiredSkills.isEmpty()) {
-            long matchingSkills = requiredSkills.stream()
-                    .mapToLong(skill -> userSkills.contains(skill) ? 1 : 0)
-                    .sum();
-            double skillMatchRatio = (double) matchingSkills / requiredSkills.size();
-            score += skillMatchRatio * 0.8;
-        }
-
-        // Interest match score (20% weight)
-        Set<String> userInterests = user.getInterests().stream()
-                .map(interest -> interest.getInterestName())
-                .collect(Collectors.toSet());
-        
-        if (projectDomain != null && userInterests.contains(projectDomain)) {
-            score += 0.2;
-        }
+    public List<AutocompleteIndex.Suggestion> autocomplete(String prefix, AutocompleteIndex.Kind kind, int limit) {
+        return autocompleteIndex.suggest(prefix, kind, limit);
+    }
 
-        return score;
+    /**
+     * Facet counts for the discover filters, given the filters already picked
+     */
+    public TeamDiscoveryIndex.Facets getDiscoveryFacets(Long userId, String domain, List<String> skills, int limit) {
+        return teamDiscoveryIndex.facets(userId, domain, skills, limit);
     }
 
     /**
-     * Calculate team availability score based on open slots and activity
+     * Discovery index sort key for the requested sort, or null when the index cannot serve it
      */
-    private double calculateAvailabilityScore(Team team) {
-        int currentMembers = team.getMembers().size();
-        int maxMembers = team.getMaxMembers();
-        
-        if (currentMembers >= maxMembers) {
-            return 0.0; // Team is full
+    private static TeamDiscoveryIndex.SortKey discoverySortKey(Sort sort) {
+        if (sort.isUnsorted()) {
+            return TeamDiscoveryIndex.SortKey.CREATED_AT;
+        }
+        if (sort.stream().count() > 1) {
+            return null;
+        }
+        switch (sort.iterator().next().getProperty()) {
+            case "createdAt":
+                return TeamDiscoveryIndex.SortKey.CREATED_AT;
+            case "maxMembers":
+                return TeamDiscoveryIndex.SortKey.MAX_MEMBERS;
+            case "memberCount":
+                return TeamDiscoveryIndex.SortKey.MEMBER_COUNT;
+            case "availableSlots":
+                return TeamDiscoveryIndex.SortKey.FREE_SLOTS;
+            default:
+                return null;
         }
-        
-        // Higher score for teams with more available slots
-        double availabilityRatio = (double) (maxMembers - currentMembers) / maxMembers;
-        
-        // Bonus for newer teams (more likely to be active)
-        long daysSinceCreation = java.time.Duration.between(
-            team.getCreatedAt().toInstant(),
-            java.time.Instant.now()
-        ).toDays();
-        
-        double recencyBonus = Math.max(0, 1.0 - (daysSinceCreation / 30.0)); // Decay over 30 days
-        
-        return (availabilityRatio * 0.7) + (recencyBonus * 0.3);
     }
 
     /**
-     * Get trending domains based on recent team creation activity
+     * Load teams for the given matches, keeping the ranking order
      */
-    public List<String> getTrendingDomains(int limit) {
-        return teamRepository.findTrendingDomains(PageRequest.of(0, limit))
-                .stream()
-                .map(result -> (String) result[0])
+    private List<Team> loadTeamsInOrder(List<ScoredMatch> matches) {
+        return loadTeamsById(matches.stream()
+                .map(ScoredMatch::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private List<Team> loadTeamsById(List<Long> ids) {
+        Map<Long, Team> teamsById = teamRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Team::getId, team -> team));
+
+        return ids.stream()
+                .map(teamsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get popular skills based on team requirements
+     * Load users for the given matches, keeping the ranking order
      */
-    public List<String> getPopularSkills(int limit) {
-        return teamRepository.findPopularSkills(PageRequest.of(0, limit))
-                .stream()
-                .map(result -> (String) result[0])
-                .collect(Collectors.toList());
+    private List<User> loadUsersInOrder(List<ScoredMatch> matches) {
+        return loadUsersById(matches.stream()
+                .map(ScoredMatch::getId)
+                .collect(Collectors.toList()));
     }
 
-    // Helper classes for scoring
-    private static class TeamMatchScore {
-        private final Team team;
-        private final double score;
-
-        public TeamMatchScore(Team team, double score) {
-            this.team = team;
-            this.score = score;
-        }
+    private List<User> loadUsersById(List<Long> ids) {
+        Map<Long, User> usersById = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
 
-        public Team getTeam() { return team; }
-        public double getScore() { return score; }
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private static class UserMatchScore {
-        private final User user;
-        private final double score;
+    /**
+     * Get trending domains based on team creation activity of the last 30 days
+     */
+    public List<String> getTrendingDomains(int limit) {
+        return getTrendingDomains(TrendingDomainCounter.MAX_WINDOW_HOURS, limit);
+    }
 
-        public UserMatchScore(User user, double score) {
-            this.user = user;
-            this.score = score;
-        }
+    /**
+     * Get trending domains based on team creation activity of the last windowHours
+     */
+    public List<String> getTrendingDomains(int windowHours, int limit) {
+        return trendingDomainCounter.topDomains(windowHours, limit);
+    }
 
-        public User getUser() { return user; }
-        public double getScore() { return score; }
+    /**
+     * Get popular skills based on team requirements
+     */
+    public List<String> getPopularSkills(int limit) {
+        return popularSkillSketch.topSkills(limit);
     }
 }
\ No newline at end of file
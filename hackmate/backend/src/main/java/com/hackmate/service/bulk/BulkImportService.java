@@ -0,0 +1,850 @@
+package com.hackmate.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackmate.dto.ImportReport;
+import com.hackmate.model.AuthProvider;
+import com.hackmate.model.id.SnowflakeIds;
+import com.hackmate.service.IdNodeLease;
+import com.hackmate.service.MembershipService;
+import com.hackmate.service.bulk.ImportRecordReader.ImportRecord;
+import com.hackmate.service.cache.TeamViewCache;
+import com.hackmate.service.matching.PopularSkillSketch;
+import com.hackmate.service.matching.TeamSkillIndex;
+import com.hackmate.service.matching.TrendingDomainCounter;
+import com.hackmate.service.matching.UserSimilarityIndex;
+import com.hackmate.service.search.AutocompleteIndex;
+import com.hackmate.service.search.AutocompleteIndex.Kind;
+import com.hackmate.service.search.TeamSearchIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users, teams, team members and user skills for organizers from a CSV or NDJSON stream.
+ * Rows are read and validated in chunks; each chunk is checked against the database with one
+ * set-based query (taken usernames and emails, known users and teams) and written with JDBC
+ * batches in one transaction. If a chunk's write fails it is retried one row at a time, so a bad
+ * row is reported with its line number and the rest of the file still goes in.
+ * Once the file is in, the in-memory indexes are updated for the committed rows only, and the
+ * teams they touched are announced on the invalidation channel so other instances re-read them.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    public enum Entity { USERS, TEAMS, MEMBERS, SKILLS }
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final int MAX_SKILL_LENGTH = 50;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, email, password, full_name, phone_number, bio, provider, created_at," +
+            " updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String INSERT_USER_SKILL_SQL = "INSERT INTO user_skills (user_id, skill) VALUES (?, ?)";
+
+    private static final String INSERT_USER_INTEREST_SQL = "INSERT INTO user_interests (user_id, interest) VALUES (?, ?)";
+
+    private static final String INSERT_TEAM_SQL =
+            "INSERT INTO teams (id, name, description, project_domain, max_members, is_open, member_count, creator_id," +
+            " created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String INSERT_TEAM_SKILL_SQL = "INSERT INTO team_required_skills (team_id, skill) VALUES (?, ?)";
+
+    private static final String INSERT_MEMBER_SQL = "INSERT INTO team_members (team_id, user_id) VALUES (?, ?)";
+
+    // Same guard as a single join, applied once per team for all of its new members
+    private static final String RESERVE_SLOTS_SQL =
+            "UPDATE teams SET member_count = member_count + ?" +
+            " WHERE id = ? AND member_count + ? <= max_members AND deleted_at IS NULL";
+
+    private static final String TAKEN_SQL =
+            "SELECT username, email FROM users WHERE username IN (:usernames) OR email IN (:emails)";
+
+    private static final String USERS_BY_KEY_SQL =
+            "SELECT id, username, email FROM users WHERE username IN (:keys) OR email IN (:keys)";
+
+    private static final String TEAMS_BY_ID_SQL =
+            "SELECT id, max_members, member_count FROM teams WHERE id IN (:ids) AND deleted_at IS NULL";
+
+    private static final String MEMBERSHIPS_SQL =
+            "SELECT team_id, user_id FROM team_members WHERE team_id IN (:teamIds) AND user_id IN (:userIds)";
+
+    private static final String USER_SKILLS_SQL = "SELECT user_id, skill FROM user_skills WHERE user_id IN (:ids)";
+
+    private static final String USER_INTERESTS_SQL =
+            "SELECT user_id, interest FROM user_interests WHERE user_id IN (:ids)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private IdNodeLease idNodeLease;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private TeamSearchIndex teamSearchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private UserSimilarityIndex userSimilarityIndex;
+
+    @Autowired
+    private TrendingDomainCounter trendingDomainCounter;
+
+    @Autowired
+    private PopularSkillSketch popularSkillSketch;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private TeamViewCache teamViewCache;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private JdbcTemplate jdbcTemplate;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private SnowflakeIds snowflakeIds;
+
+    @PostConstruct
+    public void init() {
+        snowflakeIds = SnowflakeIds.forNode(idNodeLease.getNodeId());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import every row of the stream, rejecting bad rows individually
+     */
+    public ImportReport importRecords(Entity entity, ImportFormat format, InputStream input) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport(entity.name().toLowerCase(Locale.ROOT),
+                format.name().toLowerCase(Locale.ROOT), maxReportedErrors);
+        ChunkImporter importer = importerFor(entity);
+
+        try (ImportRecordReader reader = new ImportRecordReader(input, format, objectMapper)) {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                report.rowRead();
+                if (record.getError() != null) {
+                    report.reject(record.getLine(), record.getError());
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    importer.importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importer.importChunk(chunk, report);
+            }
+        }
+
+        if (report.getImported() > 0) {
+            importer.finish();
+        }
+        report.setDurationMs(System.currentTimeMillis() - start);
+        logger.info("Imported {} of {} {} rows in {} ms", report.getImported(), report.getRowsRead(),
+                report.getEntity(), report.getDurationMs());
+        return report;
+    }
+
+    private ChunkImporter importerFor(Entity entity) {
+        switch (entity) {
+            case USERS:
+                return new UserImporter();
+            case TEAMS:
+                return new TeamImporter();
+            case MEMBERS:
+                return new MemberImporter();
+            default:
+                return new SkillImporter();
+        }
+    }
+
+    private interface ChunkImporter {
+
+        void importChunk(List<ImportRecord> records, ImportReport report);
+
+        /**
+         * Bring the in-memory indexes up to date with what was imported
+         */
+        void finish();
+    }
+
+    private abstract static class Row {
+        final int line;
+
+        Row(int line) {
+            this.line = line;
+        }
+    }
+
+    /**
+     * Write the rows in one transaction, or one row per transaction if that fails.
+     * Returns the rows that were committed.
+     */
+    private <R extends Row> List<R> write(List<R> rows, Consumer<List<R>> writer, ImportReport report) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(rows));
+            report.imported(rows.size());
+            return rows;
+        } catch (DataAccessException | TransactionException ex) {
+            logger.debug("Chunk write failed, retrying row by row: {}", ex.getMessage());
+        }
+        List<R> written = new ArrayList<>(rows.size());
+        for (R row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.accept(Collections.singletonList(row)));
+                report.imported(1);
+                written.add(row);
+            } catch (DataAccessException | TransactionException ex) {
+                report.reject(row.line, ex.getMostSpecificCause().getMessage());
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Execute a batched insert of the rows under freshly assigned ids, returned in row order
+     */
+    private long[] insertWithIds(String sql, List<Object[]> rows) {
+        long[] ids = new long[rows.size()];
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            Object[] values = new Object[row.length + 1];
+            ids[i] = snowflakeIds.next();
+            values[0] = ids[i];
+            System.arraycopy(row, 0, values, 1, row.length);
+            batch.add(values);
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+        return ids;
+    }
+
+    /**
+     * Ids of the users with these usernames or emails, keyed by lower-cased username and email
+     */
+    private Map<String, Long> resolveUsers(Collection<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ids;
+        }
+        namedJdbcTemplate.query(USERS_BY_KEY_SQL, new MapSqlParameterSource("keys", keys), rs -> {
+            ids.put(lower(rs.getString(2)), rs.getLong(1));
+            ids.put(lower(rs.getString(3)), rs.getLong(1));
+        });
+        return ids;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static String checkLength(String field, String value, int max, boolean required) {
+        if (value == null) {
+            return required ? field + " is required" : null;
+        }
+        return value.length() > max ? field + " must be at most " + max + " characters" : null;
+    }
+
+    private static String checkItems(String field, List<String> items) {
+        for (String item : items) {
+            if (item.length() > MAX_SKILL_LENGTH) {
+                return field + " entries must be at most " + MAX_SKILL_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    // Users: username, email, fullName, password, phoneNumber, bio, skills, interests
+
+    private static class UserRow extends Row {
+        String username;
+        String email;
+        String fullName;
+        String password;
+        String phoneNumber;
+        String bio;
+        List<String> skills;
+        List<String> interests;
+        long id;
+
+        UserRow(int line) {
+            super(line);
+        }
+    }
+
+    private class UserImporter implements ChunkImporter {
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<UserRow> imported = new ArrayList<>();
+
+        @Override
+        public void importChunk(List<ImportRecord> records, ImportReport report) {
+            List<UserRow> rows = new ArrayList<>(records.size());
+            for (ImportRecord record : records) {
+                UserRow row = new UserRow(record.getLine());
+                row.username = record.get("username");
+                row.email = record.get("email");
+                row.fullName = record.get("fullName", "name");
+                row.password = record.get("password");
+                row.phoneNumber = record.get("phoneNumber", "phone");
+                row.bio = record.get("bio");
+                row.skills = record.getList("skills");
+                row.interests = record.getList("interests");
+
+                String error = validate(row);
+                if (error != null) {
+                    report.reject(row.line, error);
+                } else {
+                    seenUsernames.add(lower(row.username));
+                    seenEmails.add(lower(row.email));
+                    rows.add(row);
+                }
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            // One query for every username and email in the chunk that is already registered
+            Set<String> takenUsernames = new HashSet<>();
+            Set<String> takenEmails = new HashSet<>();
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("usernames", rows.stream().map(row -> row.username).toList())
+                    .addValue("emails", rows.stream().map(row -> row.email).toList());
+            namedJdbcTemplate.query(TAKEN_SQL, parameters, rs -> {
+                takenUsernames.add(lower(rs.getString(1)));
+                takenEmails.add(lower(rs.getString(2)));
+            });
+            List<UserRow> accepted = new ArrayList<>(rows.size());
+            for (UserRow row : rows) {
+                if (takenEmails.contains(lower(row.email))) {
+                    report.reject(row.line, "Email Address already in use!");
+                } else if (takenUsernames.contains(lower(row.username))) {
+                    report.reject(row.line, "Username is already taken!");
+                } else {
+                    accepted.add(row);
+                }
+            }
+
+            // BCrypt is deliberately slow, so hash the chunk's passwords on every core
+            accepted.parallelStream()
+                    .filter(row -> row.password != null)
+                    .forEach(row -> row.password = passwordEncoder.encode(row.password));
+
+            for (UserRow row : write(accepted, this::insert, report)) {
+                row.password = null;
+                imported.add(row);
+            }
+        }
+
+        private String validate(UserRow row) {
+            String error = checkLength("username", row.username, 50, true);
+            if (error == null) {
+                error = checkLength("email", row.email, 100, true);
+            }
+            if (error == null && !EMAIL.matcher(row.email).matches()) {
+                error = "email is not a valid address";
+            }
+            if (error == null) {
+                error = checkLength("fullName", row.fullName, 100, true);
+            }
+            if (error == null && row.password != null && (row.password.length() < 6 || row.password.length() > 20)) {
+                error = "password must be between 6 and 20 characters";
+            }
+            if (error == null) {
+                error = checkLength("phoneNumber", row.phoneNumber, 20, false);
+            }
+            if (error == null) {
+                error = checkLength("bio", row.bio, 500, false);
+            }
+            if (error == null) {
+                error = checkItems("skills", row.skills);
+            }
+            if (error == null) {
+                error = checkItems("interests", row.interests);
+            }
+            if (error == null && seenUsernames.contains(lower(row.username))) {
+                error = "Username appears earlier in the file";
+            }
+            if (error == null && seenEmails.contains(lower(row.email))) {
+                error = "Email appears earlier in the file";
+            }
+            return error;
+        }
+
+        private void insert(List<UserRow> rows) {
+            Timestamp now = now();
+            List<Object[]> users = new ArrayList<>(rows.size());
+            for (UserRow row : rows) {
+                users.add(new Object[] { row.username, row.email, row.password, row.fullName, row.phoneNumber,
+                        row.bio, AuthProvider.LOCAL.name(), now });
+            }
+            long[] ids = insertWithIds(INSERT_USER_SQL, users);
+
+            List<Object[]> skills = new ArrayList<>();
+            List<Object[]> interests = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).id = ids[i];
+                for (String skill : rows.get(i).skills) {
+                    skills.add(new Object[] { ids[i], skill });
+                }
+                for (String interest : rows.get(i).interests) {
+                    interests.add(new Object[] { ids[i], interest });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SKILL_SQL, skills);
+            jdbcTemplate.batchUpdate(INSERT_USER_INTEREST_SQL, interests);
+        }
+
+        @Override
+        public void finish() {
+            // New users belong to no team yet, so no team index changes
+            for (UserRow row : imported) {
+                userSimilarityIndex.update(row.id, row.skills, row.interests);
+                autocompleteIndex.recordChange(Kind.SKILL, Collections.emptySet(), row.skills);
+                autocompleteIndex.recordChange(Kind.INTEREST, Collections.emptySet(), row.interests);
+            }
+        }
+    }
+
+    // Teams: name, description, projectDomain, maxMembers, open, creator, requiredSkills, members
+
+    private static class TeamRow extends Row {
+        String name;
+        String description;
+        String projectDomain;
+        int maxMembers;
+        boolean open;
+        String creator;
+        List<String> requiredSkills;
+        List<String> members;
+        Long creatorId;
+        Set<Long> memberIds;
+        long id;
+        LocalDateTime createdAt;
+
+        TeamRow(int line) {
+            super(line);
+        }
+    }
+
+    private class TeamImporter implements ChunkImporter {
+        private final List<TeamRow> imported = new ArrayList<>();
+
+        @Override
+        public void importChunk(List<ImportRecord> records, ImportReport report) {
+            List<TeamRow> rows = new ArrayList<>(records.size());
+            Set<String> userKeys = new HashSet<>();
+            for (ImportRecord record : records) {
+                TeamRow row = new TeamRow(record.getLine());
+                row.name = record.get("name");
+                row.description = record.get("description");
+                row.projectDomain = record.get("projectDomain", "domain");
+                row.creator = record.get("creator");
+                row.requiredSkills = record.getList("requiredSkills");
+                row.members = record.getList("members");
+                String open = record.get("open", "isOpen");
+                row.open = open == null || Boolean.parseBoolean(open);
+
+                String error = checkLength("name", row.name, 100, true);
+                if (error == null) {
+                    error = checkLength("description", row.description, 1000, false);
+                }
+                if (error == null) {
+                    error = checkLength("projectDomain", row.projectDomain, 50, true);
+                }
+                if (error == null) {
+                    error = checkLength("creator", row.creator, 100, true);
+                }
+                if (error == null) {
+                    error = checkItems("requiredSkills", row.requiredSkills);
+                }
+                if (error == null) {
+                    String maxMembers = record.get("maxMembers");
+                    try {
+                        row.maxMembers = maxMembers == null ? 5 : Integer.parseInt(maxMembers);
+                        if (row.maxMembers < 2 || row.maxMembers > 20) {
+                            error = "maxMembers must be between 2 and 20";
+                        }
+                    } catch (NumberFormatException ex) {
+                        error = "maxMembers must be a number";
+                    }
+                }
+                if (error != null) {
+                    report.reject(row.line, error);
+                    continue;
+                }
+                userKeys.add(row.creator);
+                userKeys.addAll(row.members);
+                rows.add(row);
+            }
+
+            Map<String, Long> userIds = resolveUsers(userKeys);
+            List<TeamRow> accepted = new ArrayList<>(rows.size());
+            for (TeamRow row : rows) {
+                row.creatorId = userIds.get(lower(row.creator));
+                if (row.creatorId == null) {
+                    report.reject(row.line, "Unknown creator " + row.creator);
+                    continue;
+                }
+                row.memberIds = new LinkedHashSet<>();
+                row.memberIds.add(row.creatorId);
+                String unknown = null;
+                for (String member : row.members) {
+                    Long memberId = userIds.get(lower(member));
+                    if (memberId == null) {
+                        unknown = member;
+                        break;
+                    }
+                    row.memberIds.add(memberId);
+                }
+                if (unknown != null) {
+                    report.reject(row.line, "Unknown member " + unknown);
+                } else if (row.memberIds.size() > row.maxMembers) {
+                    report.reject(row.line, "Team has more members than maxMembers");
+                } else {
+                    accepted.add(row);
+                }
+            }
+
+            imported.addAll(write(accepted, this::insert, report));
+        }
+
+        private void insert(List<TeamRow> rows) {
+            Timestamp now = now();
+            List<Object[]> teams = new ArrayList<>(rows.size());
+            for (TeamRow row : rows) {
+                teams.add(new Object[] { row.name, row.description, row.projectDomain, row.maxMembers, row.open,
+                        row.memberIds.size(), row.creatorId, now });
+            }
+            long[] ids = insertWithIds(INSERT_TEAM_SQL, teams);
+
+            List<Object[]> members = new ArrayList<>();
+            List<Object[]> skills = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).id = ids[i];
+                rows.get(i).createdAt = now.toLocalDateTime();
+                for (Long memberId : rows.get(i).memberIds) {
+                    members.add(new Object[] { ids[i], memberId });
+                }
+                for (String skill : rows.get(i).requiredSkills) {
+                    skills.add(new Object[] { ids[i], skill });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, members);
+            jdbcTemplate.batchUpdate(INSERT_TEAM_SKILL_SQL, skills);
+        }
+
+        @Override
+        public void finish() {
+            List<Long> teamIds = new ArrayList<>(imported.size());
+            for (TeamRow row : imported) {
+                teamIds.add(row.id);
+                membershipService.reload(row.id);
+                teamSkillIndex.reload(row.id);
+                trendingDomainCounter.recordCreated(row.projectDomain, row.createdAt);
+                popularSkillSketch.recordChange(Collections.emptySet(), row.requiredSkills);
+                autocompleteIndex.recordChange(Kind.SKILL, Collections.emptySet(), row.requiredSkills);
+                autocompleteIndex.recordChange(Kind.DOMAIN, Collections.emptySet(),
+                        Collections.singleton(row.projectDomain));
+            }
+            teamSearchIndex.index(teamIds);
+            // Nothing is cached yet; the notices tell other instances to index the new teams
+            teamViewCache.invalidateAll(teamIds);
+        }
+    }
+
+    // Members of existing teams: teamId, user
+
+    private static class MemberRow extends Row {
+        long teamId;
+        long userId;
+
+        MemberRow(int line) {
+            super(line);
+        }
+    }
+
+    private class MemberImporter implements ChunkImporter {
+        private final List<MemberRow> imported = new ArrayList<>();
+
+        @Override
+        public void importChunk(List<ImportRecord> records, ImportReport report) {
+            List<MemberRow> rows = new ArrayList<>(records.size());
+            List<String> userKeys = new ArrayList<>(records.size());
+            Set<String> keys = new HashSet<>();
+            for (ImportRecord record : records) {
+                MemberRow row = new MemberRow(record.getLine());
+                String teamId = record.get("teamId", "team");
+                String user = record.get("user", "username", "email");
+                if (teamId == null || user == null) {
+                    report.reject(row.line, "teamId and user are required");
+                    continue;
+                }
+                try {
+                    row.teamId = Long.parseLong(teamId);
+                } catch (NumberFormatException ex) {
+                    report.reject(row.line, "teamId must be a number");
+                    continue;
+                }
+                rows.add(row);
+                userKeys.add(user);
+                keys.add(user);
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> userIds = resolveUsers(keys);
+            Set<Long> teamIds = new HashSet<>();
+            for (MemberRow row : rows) {
+                teamIds.add(row.teamId);
+            }
+            Map<Long, Integer> freeSlots = new HashMap<>();
+            namedJdbcTemplate.query(TEAMS_BY_ID_SQL, new MapSqlParameterSource("ids", teamIds),
+                    rs -> { freeSlots.put(rs.getLong(1), rs.getInt(2) - rs.getInt(3)); });
+            Set<List<Long>> memberships = new HashSet<>();
+            if (!freeSlots.isEmpty() && !userIds.isEmpty()) {
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("teamIds", freeSlots.keySet())
+                        .addValue("userIds", new HashSet<>(userIds.values()));
+                namedJdbcTemplate.query(MEMBERSHIPS_SQL, parameters,
+                        rs -> { memberships.add(List.of(rs.getLong(1), rs.getLong(2))); });
+            }
+
+            List<MemberRow> accepted = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                MemberRow row = rows.get(i);
+                Long userId = userIds.get(lower(userKeys.get(i)));
+                Integer slots = freeSlots.get(row.teamId);
+                if (slots == null) {
+                    report.reject(row.line, "Unknown team " + row.teamId);
+                } else if (userId == null) {
+                    report.reject(row.line, "Unknown user " + userKeys.get(i));
+                } else if (!memberships.add(List.of(row.teamId, userId))) {
+                    report.reject(row.line, "User is already a member of this team");
+                } else if (slots <= 0) {
+                    report.reject(row.line, "Team is full");
+                } else {
+                    row.userId = userId;
+                    freeSlots.put(row.teamId, slots - 1);
+                    accepted.add(row);
+                }
+            }
+
+            imported.addAll(write(accepted, this::insert, report));
+        }
+
+        private void insert(List<MemberRow> rows) {
+            Map<Long, Integer> added = new HashMap<>();
+            List<Object[]> members = new ArrayList<>(rows.size());
+            for (MemberRow row : rows) {
+                members.add(new Object[] { row.teamId, row.userId });
+                added.merge(row.teamId, 1, Integer::sum);
+            }
+            // Reserve the slots first so a team filled since the check rolls the write back
+            for (Map.Entry<Long, Integer> entry : added.entrySet()) {
+                if (jdbcTemplate.update(RESERVE_SLOTS_SQL, entry.getValue(), entry.getKey(), entry.getValue()) == 0) {
+                    throw new DataIntegrityViolationException("Team is full or was deleted");
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, members);
+        }
+
+        @Override
+        public void finish() {
+            Set<Long> touchedTeams = new LinkedHashSet<>();
+            for (MemberRow row : imported) {
+                teamSkillIndex.memberJoined(row.teamId, row.userId);
+                touchedTeams.add(row.teamId);
+            }
+            for (Long teamId : touchedTeams) {
+                membershipService.reload(teamId);
+            }
+            teamViewCache.invalidateAll(touchedTeams);
+        }
+    }
+
+    // Skills and interests added to existing users: user, skills, interests
+
+    private static class SkillRow extends Row {
+        long userId;
+        List<String> skills = new ArrayList<>();
+        List<String> interests = new ArrayList<>();
+
+        SkillRow(int line) {
+            super(line);
+        }
+    }
+
+    private class SkillImporter implements ChunkImporter {
+        private final Set<Long> touchedUsers = new LinkedHashSet<>();
+
+        @Override
+        public void importChunk(List<ImportRecord> records, ImportReport report) {
+            List<ImportRecord> valid = new ArrayList<>(records.size());
+            Set<String> keys = new HashSet<>();
+            for (ImportRecord record : records) {
+                String user = record.get("user", "username", "email");
+                String error = user == null ? "user is required" : checkItems("skills", record.getList("skills"));
+                if (error == null) {
+                    error = checkItems("interests", record.getList("interests"));
+                }
+                if (error != null) {
+                    report.reject(record.getLine(), error);
+                } else {
+                    valid.add(record);
+                    keys.add(user);
+                }
+            }
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> userIds = resolveUsers(keys);
+            Map<Long, Set<String>> skills = existing(USER_SKILLS_SQL, userIds.values());
+            Map<Long, Set<String>> interests = existing(USER_INTERESTS_SQL, userIds.values());
+
+            List<SkillRow> accepted = new ArrayList<>(valid.size());
+            for (ImportRecord record : valid) {
+                String user = record.get("user", "username", "email");
+                Long userId = userIds.get(lower(user));
+                if (userId == null) {
+                    report.reject(record.getLine(), "Unknown user " + user);
+                    continue;
+                }
+                SkillRow row = new SkillRow(record.getLine());
+                row.userId = userId;
+                Set<String> userSkills = skills.computeIfAbsent(userId, id -> new HashSet<>());
+                for (String skill : record.getList("skills")) {
+                    if (userSkills.add(lower(skill))) {
+                        row.skills.add(skill);
+                    }
+                }
+                Set<String> userInterests = interests.computeIfAbsent(userId, id -> new HashSet<>());
+                for (String interest : record.getList("interests")) {
+                    if (userInterests.add(lower(interest))) {
+                        row.interests.add(interest);
+                    }
+                }
+                accepted.add(row);
+            }
+
+            for (SkillRow row : write(accepted, this::insert, report)) {
+                if (!row.skills.isEmpty() || !row.interests.isEmpty()) {
+                    touchedUsers.add(row.userId);
+                }
+                autocompleteIndex.recordChange(Kind.SKILL, Collections.emptySet(), row.skills);
+                autocompleteIndex.recordChange(Kind.INTEREST, Collections.emptySet(), row.interests);
+            }
+        }
+
+        /**
+         * Lower-cased values each user already has in a skills or interests table
+         */
+        private Map<Long, Set<String>> existing(String sql, Collection<Long> userIds) {
+            Map<Long, Set<String>> values = new HashMap<>();
+            if (!userIds.isEmpty()) {
+                namedJdbcTemplate.query(sql, new MapSqlParameterSource("ids", new HashSet<>(userIds)), rs -> {
+                    values.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(lower(rs.getString(2)));
+                });
+            }
+            return values;
+        }
+
+        private void insert(List<SkillRow> rows) {
+            List<Object[]> skills = new ArrayList<>();
+            List<Object[]> interests = new ArrayList<>();
+            for (SkillRow row : rows) {
+                for (String skill : row.skills) {
+                    skills.add(new Object[] { row.userId, skill });
+                }
+                for (String interest : row.interests) {
+                    interests.add(new Object[] { row.userId, interest });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SKILL_SQL, skills);
+            jdbcTemplate.batchUpdate(INSERT_USER_INTEREST_SQL, interests);
+        }
+
+        @Override
+        public void finish() {
+            // Re-read the touched users' full skills and interests, one chunk of users per query
+            List<Long> userIds = new ArrayList<>(touchedUsers);
+            for (int from = 0; from < userIds.size(); from += chunkSize) {
+                List<Long> batch = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                Map<Long, Set<String>> skills = existing(USER_SKILLS_SQL, batch);
+                Map<Long, Set<String>> interests = existing(USER_INTERESTS_SQL, batch);
+                for (Long userId : batch) {
+                    userSimilarityIndex.update(userId, skills.getOrDefault(userId, Collections.emptySet()),
+                            interests.getOrDefault(userId, Collections.emptySet()));
+                }
+            }
+
+            // Team skill gaps depend on what members know; the notices make other instances re-read them too
+            Set<Long> touchedTeams = new LinkedHashSet<>();
+            for (Long userId : touchedUsers) {
+                touchedTeams.addAll(membershipService.teamIdsOf(userId));
+            }
+            for (Long teamId : touchedTeams) {
+                teamSkillIndex.reload(teamId);
+            }
+            teamViewCache.invalidateAll(touchedTeams);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hackmate.service.cache;
+
+/**
+ * Carries "team changed" notices between application instances so each can drop its cached copy.
+ * The implementation is chosen with app.cache.team-view.channel: "local" for a single instance and
+ * tests, "postgres" for LISTEN/NOTIFY on PostgreSQL, "database" for a polled table on any database.
+ */
+public interface InvalidationChannel {
+
+    /**
+     * Tell every instance, this one included, that the team changed
+     */
+    void publish(long teamId);
+
+    /**
+     * Register the callbacks run for each notice, including the ones this instance published
+     */
+    void subscribe(Listener listener);
+
+    /**
+     * Register callbacks run only for notices published by other instances, for listeners that
+     * already apply this instance's own changes as they make them
+     */
+    void subscribeRemote(Listener listener);
+
+    interface Listener {
+
+        void invalidate(long teamId);
+
+        /**
+         * Notices may have been lost, for example while reconnecting; drop everything
+         */
+        void invalidateAll();
+    }
+}
@@ -0,0 +1,192 @@
+package com.hackmate.service.cache;
+
+import com.hackmate.dto.TeamView;
+import com.hackmate.repository.TeamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of {@link TeamView} snapshots for hot team lookups, bounded by the estimated
+ * size of the snapshots rather than their number. A hit is a lock-free map read that sets the
+ * entry's reference bit; once over the bound, a CLOCK hand sweeps the map, giving referenced
+ * entries a second chance and evicting the rest, an approximation of least recently read.
+ * Team mutations call {@link #invalidate}, which goes out on the {@link InvalidationChannel} so every
+ * instance drops its copy. A load that overlaps an invalidation is returned but not cached, so a
+ * snapshot read before a write can never be stored after it.
+ */
+@Component
+public class TeamViewCache {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private InvalidationChannel invalidationChannel;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.team-view.max-bytes:33554432}")
+    private long maxBytes;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // One sweeper at a time; the hand resumes where the previous sweep stopped
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Entry> hand = Collections.emptyIterator();
+
+    private TransactionTemplate readTransaction;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        invalidationChannel.subscribe(new InvalidationChannel.Listener() {
+            @Override
+            public void invalidate(long teamId) {
+                evict(teamId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                evictAll();
+            }
+        });
+
+        hits = meterRegistry.counter("hackmate.teams.view-cache", "result", "hit");
+        misses = meterRegistry.counter("hackmate.teams.view-cache", "result", "miss");
+        Gauge.builder("hackmate.teams.view-cache.bytes", bytes, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Snapshot of the team, loaded from the database on a miss; empty if the team does not exist
+     */
+    public Optional<TeamView> get(Long teamId) {
+        Entry cached = entries.get(teamId);
+        if (cached != null) {
+            if (!cached.referenced) {
+                cached.referenced = true;
+            }
+            hits.increment();
+            return Optional.of(cached.view);
+        }
+        long generation = invalidations.get();
+        misses.increment();
+        TeamView view = readTransaction.execute(status -> teamRepository.findById(teamId).map(TeamView::of).orElse(null));
+        if (view == null) {
+            return Optional.empty();
+        }
+        // Evictions bump the generation before removing, so checking it inside compute, which
+        // holds the key's bin, means a load overlapping an eviction is never stored
+        Entry entry = new Entry(teamId, view);
+        entries.compute(teamId, (id, previous) -> {
+            if (generation != invalidations.get()) {
+                return previous;
+            }
+            bytes.addAndGet(view.estimatedSize() - (previous != null ? previous.view.estimatedSize() : 0));
+            return entry;
+        });
+        if (bytes.get() > maxBytes) {
+            sweep();
+        }
+        return Optional.of(view);
+    }
+
+    public boolean exists(Long teamId) {
+        return get(teamId).isPresent();
+    }
+
+    /**
+     * Drop the team on every instance; call after the change is committed
+     */
+    public void invalidate(Long teamId) {
+        invalidationChannel.publish(teamId);
+    }
+
+    public void invalidateAll(Collection<Long> teamIds) {
+        for (Long teamId : teamIds) {
+            invalidate(teamId);
+        }
+    }
+
+    private void evict(long teamId) {
+        invalidations.incrementAndGet();
+        Entry removed = entries.remove(teamId);
+        if (removed != null) {
+            bytes.addAndGet(-removed.view.estimatedSize());
+        }
+    }
+
+    private void evictAll() {
+        invalidations.incrementAndGet();
+        for (Long teamId : entries.keySet()) {
+            Entry removed = entries.remove(teamId);
+            if (removed != null) {
+                bytes.addAndGet(-removed.view.estimatedSize());
+            }
+        }
+    }
+
+    /**
+     * Advance the CLOCK hand until the cache is back within its bound. Readers that find a sweep
+     * running leave it to finish instead of queueing behind it.
+     */
+    private void sweep() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Two passes clear every reference bit and evict everything, so this always ends
+            int budget = 2 * entries.size() + 1;
+            while (bytes.get() > maxBytes && budget-- > 0) {
+                if (!hand.hasNext()) {
+                    hand = entries.values().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Entry entry = hand.next();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (entries.remove(entry.teamId, entry)) {
+                    bytes.addAndGet(-entry.view.estimatedSize());
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class Entry {
+        final long teamId;
+        final TeamView view;
+        volatile boolean referenced;
+
+        Entry(long teamId, TeamView view) {
+            this.teamId = teamId;
+            this.view = view;
+        }
+    }
+}
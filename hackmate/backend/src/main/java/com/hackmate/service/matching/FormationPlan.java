@@ -0,0 +1,75 @@
+package com.hackmate.service.matching;
+
+import java.util.List;
+
+/**
+ * Result of a team formation run: which user goes to which team and how much of the
+ * teams' required skills the placements cover
+ */
+public class FormationPlan {
+
+    private final List<Placement> placements;
+    private final int unplacedUsers;
+    private final int coverageBefore;
+    private final int coverageAfter;
+    private final int requiredTotal;
+    private final int localSearchImprovements;
+    private final int filledWithoutGain;
+
+    public FormationPlan(List<Placement> placements, int unplacedUsers, int coverageBefore, int coverageAfter,
+                         int requiredTotal, int localSearchImprovements, int filledWithoutGain) {
+        this.placements = placements;
+        this.unplacedUsers = unplacedUsers;
+        this.coverageBefore = coverageBefore;
+        this.coverageAfter = coverageAfter;
+        this.requiredTotal = requiredTotal;
+        this.localSearchImprovements = localSearchImprovements;
+        this.filledWithoutGain = filledWithoutGain;
+    }
+
+    public List<Placement> getPlacements() {
+        return placements;
+    }
+
+    public int getUnplacedUsers() {
+        return unplacedUsers;
+    }
+
+    public int getCoverageBefore() {
+        return coverageBefore;
+    }
+
+    public int getCoverageAfter() {
+        return coverageAfter;
+    }
+
+    public int getRequiredTotal() {
+        return requiredTotal;
+    }
+
+    public int getLocalSearchImprovements() {
+        return localSearchImprovements;
+    }
+
+    public int getFilledWithoutGain() {
+        return filledWithoutGain;
+    }
+
+    public static class Placement {
+        private final long teamId;
+        private final long userId;
+
+        public Placement(long teamId, long userId) {
+            this.teamId = teamId;
+            this.userId = userId;
+        }
+
+        public long getTeamId() {
+            return teamId;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+    }
+}
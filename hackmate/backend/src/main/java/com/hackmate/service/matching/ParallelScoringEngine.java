@@ -0,0 +1,161 @@
+package com.hackmate.service.matching;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores candidate arrays into a top-K heap, splitting large pools across a dedicated
+ * ForkJoinPool. Each partition fills its own heap and the partial heaps are merged on join,
+ * so scoring never contends on shared state and never runs on the common pool.
+ */
+@Component
+public class ParallelScoringEngine {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.matching.parallel.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.matching.parallel.threshold:2048}")
+    private int threshold;
+
+    @Value("${app.matching.parallel.leaf-size:512}")
+    private int leafSize;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("matching-scorer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Score candidates [0, candidateCount) into a fresh collector of size k
+     */
+    public ScoringRun score(String poolName, int candidateCount, int k, RangeScorer scorer) {
+        long start = System.nanoTime();
+        TopKCollector topK;
+        int partitions;
+
+        if (candidateCount < threshold || pool.getParallelism() < 2) {
+            topK = new TopKCollector(k);
+            scorer.scoreRange(0, candidateCount, topK);
+            partitions = 1;
+        } else {
+            int leaf = Math.max(leafSize, candidateCount / (pool.getParallelism() * 4));
+            topK = pool.invoke(new ScoreTask(scorer, 0, candidateCount, k, leaf));
+            partitions = countLeaves(candidateCount, leaf);
+        }
+
+        long wallNanos = System.nanoTime() - start;
+        String mode = partitions > 1 ? "parallel" : "sequential";
+        Timer.builder("hackmate.matching.scoring")
+                .tag("pool", poolName)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(wallNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("hackmate.matching.scoring.partitions")
+                .tag("pool", poolName)
+                .register(meterRegistry)
+                .record(partitions);
+
+        return new ScoringRun(topK, partitions, wallNanos);
+    }
+
+    private static int countLeaves(int size, int leaf) {
+        if (size <= leaf) {
+            return 1;
+        }
+        int half = size >>> 1;
+        return countLeaves(half, leaf) + countLeaves(size - half, leaf);
+    }
+
+    /**
+     * Scores a contiguous range of candidates into a collector
+     */
+    @FunctionalInterface
+    public interface RangeScorer {
+        void scoreRange(int from, int to, TopKCollector topK);
+    }
+
+    /**
+     * Result of one scoring pass together with how it was executed
+     */
+    public static class ScoringRun {
+        private final TopKCollector topK;
+        private final int partitions;
+        private final long wallNanos;
+
+        ScoringRun(TopKCollector topK, int partitions, long wallNanos) {
+            this.topK = topK;
+            this.partitions = partitions;
+            this.wallNanos = wallNanos;
+        }
+
+        public TopKCollector getTopK() {
+            return topK;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+    }
+
+    private static class ScoreTask extends RecursiveTask<TopKCollector> {
+        private final RangeScorer scorer;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final int leaf;
+
+        ScoreTask(RangeScorer scorer, int from, int to, int k, int leaf) {
+            this.scorer = scorer;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected TopKCollector compute() {
+            if (to - from <= leaf) {
+                TopKCollector local = new TopKCollector(k);
+                scorer.scoreRange(from, to, local);
+                return local;
+            }
+            int mid = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scorer, from, mid, k, leaf);
+            ScoreTask right = new ScoreTask(scorer, mid, to, k, leaf);
+            left.fork();
+            TopKCollector merged = right.compute();
+            merged.merge(left.join());
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.repository.TeamRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Bounded-memory top-K of the skills teams require most.
+ * A Space-Saving summary tracks the heaviest skills and a Count-Min sketch gives an upper bound
+ * for every skill, so the reported count of a tracked skill is the smaller of the two.
+ * Both take increments and decrements as teams are created, edited and deleted; a periodic
+ * exact recount from the database resets any accumulated error.
+ */
+@Component
+public class PopularSkillSketch {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularSkillSketch.class);
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Value("${app.matching.popular-skills.capacity:128}")
+    private int capacity;
+
+    @Value("${app.matching.popular-skills.sketch-width:1024}")
+    private int width;
+
+    @Value("${app.matching.popular-skills.sketch-depth:4}")
+    private int depth;
+
+    private long[][] sketch;
+    private long[] seeds;
+
+    // Space-Saving summary: skill -> count and the overestimation it may carry
+    private final Map<String, Counter> monitored = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        sketch = new long[depth][width];
+        seeds = new long[depth];
+        Random random = new Random(0xc0ffee);
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        recount();
+    }
+
+    /**
+     * Replace the sketch and summary with exact counts from the database
+     */
+    @Scheduled(fixedDelayString = "${app.matching.popular-skills.recount-ms:3600000}",
+               initialDelayString = "${app.matching.popular-skills.recount-ms:3600000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    @Transactional(readOnly = true)
+    public void recount() {
+        List<Object[]> rows = teamRepository.findRequiredSkillCounts();
+        rows.sort((a, b) -> Long.compare((Long) b[1], (Long) a[1]));
+
+        synchronized (this) {
+            for (long[] row : sketch) {
+                Arrays.fill(row, 0L);
+            }
+            monitored.clear();
+            for (Object[] row : rows) {
+                String skill = (String) row[0];
+                long count = (Long) row[1];
+                addToSketch(skill, count);
+                if (monitored.size() < capacity) {
+                    monitored.put(skill, new Counter(count, 0));
+                }
+            }
+        }
+        logger.debug("Popular skills recounted: {} distinct skills", rows.size());
+    }
+
+    /**
+     * Apply the difference between a team's previous and current required skills.
+     * Pass an empty collection as previous for a new team and as current for a deleted one.
+     */
+    public synchronized void recordChange(Collection<String> previousSkills, Collection<String> currentSkills) {
+        Set<String> previous = previousSkills != null ? new HashSet<>(previousSkills) : Collections.emptySet();
+        Set<String> current = currentSkills != null ? new HashSet<>(currentSkills) : Collections.emptySet();
+        for (String skill : previous) {
+            if (!current.contains(skill)) {
+                decrement(skill);
+            }
+        }
+        for (String skill : current) {
+            if (!previous.contains(skill)) {
+                increment(skill);
+            }
+        }
+    }
+
+    /**
+     * The limit most required skills, most popular first
+     */
+    public synchronized List<String> topSkills(int limit) {
+        List<Map.Entry<String, Long>> estimates = new ArrayList<>(monitored.size());
+        for (Map.Entry<String, Counter> entry : monitored.entrySet()) {
+            long estimate = Math.min(entry.getValue().count, estimate(entry.getKey()));
+            if (estimate > 0) {
+                estimates.add(Map.entry(entry.getKey(), estimate));
+            }
+        }
+        estimates.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> skills = new ArrayList<>(Math.min(limit, estimates.size()));
+        for (int i = 0; i < estimates.size() && i < limit; i++) {
+            skills.add(estimates.get(i).getKey());
+        }
+        return skills;
+    }
+
+    private void increment(String skill) {
+        if (skill == null) {
+            return;
+        }
+        addToSketch(skill, 1);
+
+        Counter counter = monitored.get(skill);
+        if (counter != null) {
+            counter.count++;
+        } else if (monitored.size() < capacity) {
+            monitored.put(skill, new Counter(1, 0));
+        } else {
+            // Evict the lightest skill, the newcomer inherits its count as possible error
+            Map.Entry<String, Counter> lightest = null;
+            for (Map.Entry<String, Counter> entry : monitored.entrySet()) {
+                if (lightest == null || entry.getValue().count < lightest.getValue().count) {
+                    lightest = entry;
+                }
+            }
+            long floor = lightest.getValue().count;
+            monitored.remove(lightest.getKey());
+            monitored.put(skill, new Counter(floor + 1, floor));
+        }
+    }
+
+    private void decrement(String skill) {
+        if (skill == null) {
+            return;
+        }
+        addToSketch(skill, -1);
+
+        Counter counter = monitored.get(skill);
+        if (counter != null) {
+            counter.count--;
+            if (counter.count <= 0) {
+                monitored.remove(skill);
+            }
+        }
+    }
+
+    private void addToSketch(String skill, long delta) {
+        for (int i = 0; i < depth; i++) {
+            sketch[i][bucket(skill, i)] += delta;
+        }
+    }
+
+    private long estimate(String skill) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, sketch[i][bucket(skill, i)]);
+        }
+        return estimate;
+    }
+
+    private int bucket(String skill, int row) {
+        long hash = skill.hashCode() ^ seeds[row];
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) width);
+    }
+
+    private static class Counter {
+        long count;
+        final long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackmate.service.matching;
+
+/**
+ * A scored candidate id produced by the matching engine
+ */
+public class ScoredMatch {
+
+    private final long id;
+    private final double score;
+
+    public ScoredMatch(long id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,431 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.service.cache.InvalidationChannel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store of the open teams shown on the discover page.
+ * Each team is a row with parallel columns for domain, member count, max members, creation time
+ * and required skills, plus one bitmap of rows per domain, per skill and per member. A discover
+ * query is a few bitmap operations followed by a sort of the matching rows, and facet counts are
+ * a single scan of the domain and skill columns over the matching rows.
+ * Kept in sync with the team skill index through its change events, including the ones for teams
+ * the skill index reloads after another instance changed them.
+ */
+@Component
+public class TeamDiscoveryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamDiscoveryIndex.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public enum SortKey { CREATED_AT, MAX_MEMBERS, MEMBER_COUNT, FREE_SLOTS }
+
+    @Autowired
+    private TeamSkillIndex teamSkillIndex;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private InvalidationChannel invalidationChannel;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columns, indexed by row
+    private long[] teamIds = new long[INITIAL_CAPACITY];
+    private int[] domainIds = new int[INITIAL_CAPACITY];
+    private int[] memberCounts = new int[INITIAL_CAPACITY];
+    private int[] maxMembers = new int[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private SkillVector[] skills = new SkillVector[INITIAL_CAPACITY];
+    private long[][] members = new long[INITIAL_CAPACITY][];
+
+    private final Map<Long, Integer> rowsByTeam = new HashMap<>();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private int rowCount;
+
+    // Bitmap indexes over rows
+    private final BitSet live = new BitSet();
+    private final Map<Integer, BitSet> domainRows = new HashMap<>();
+    private final Map<Integer, BitSet> skillRows = new HashMap<>();
+    private final Map<Long, BitSet> memberRows = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        // Subscribed after the skill index, which it depends on, so a full reload rebuilds from its new state
+        invalidationChannel.subscribeRemote(new InvalidationChannel.Listener() {
+            @Override
+            public void invalidate(long teamId) {
+                // The skill index reloads the team and publishes TeamIndexChangedEvent
+            }
+
+            @Override
+            public void invalidateAll() {
+                rebuild();
+            }
+        });
+    }
+
+    /**
+     * Load every team the skill index holds, after that index is built
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(15)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rowsByTeam.clear();
+            freeRows.clear();
+            rowCount = 0;
+            live.clear();
+            domainRows.clear();
+            skillRows.clear();
+            memberRows.clear();
+            for (TeamSkillIndex.IndexedTeam team : teamSkillIndex.indexedTeams()) {
+                if (team.acceptsMembers()) {
+                    insert(team);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Team discovery index built with {} teams", live.cardinality());
+    }
+
+    @EventListener
+    public void onTeamChanged(TeamIndexChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            delete(event.getTeamId());
+            if (event.getIndexedTeam() != null) {
+                insert(event.getIndexedTeam());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * One page of open teams the user is not a member of, in the given domain and requiring
+     * any of the given skills. Null or empty filters match every team.
+     */
+    public SearchResult search(Long userId, String domain, Collection<String> skillNames,
+                               SortKey sortKey, boolean ascending, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = filter(userId, domainFilter(domain), skillFilter(skillNames));
+            int total = rows.cardinality();
+            if (offset >= total || limit <= 0) {
+                return new SearchResult(Collections.emptyList(), total);
+            }
+
+            Integer[] order = new Integer[total];
+            int n = 0;
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                order[n++] = row;
+            }
+            Comparator<Integer> comparator = comparator(sortKey, ascending);
+            Arrays.sort(order, comparator);
+
+            int end = Math.min(total, offset + limit);
+            List<Long> page = new ArrayList<>(end - offset);
+            for (int i = offset; i < end; i++) {
+                page.add(teamIds[order[i]]);
+            }
+            return new SearchResult(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit matching team ids that sort strictly after (afterValue, afterId), or from the
+     * start when afterId is null. Only the first limit rows past the cursor are ordered, through
+     * a bounded heap, so deep pages cost no more than the first.
+     */
+    public List<Long> scroll(Long userId, String domain, Collection<String> skillNames, SortKey sortKey,
+                             boolean ascending, long afterValue, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = filter(userId, domainFilter(domain), skillFilter(skillNames));
+            Comparator<Integer> comparator = comparator(sortKey, ascending);
+
+            // Worst of the kept rows on top, so it is the one evicted
+            PriorityQueue<Integer> kept = new PriorityQueue<>(Math.max(1, limit + 1), comparator.reversed());
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                if (afterId != null && !isAfter(row, sortKey, ascending, afterValue, afterId)) {
+                    continue;
+                }
+                kept.add(row);
+                if (kept.size() > limit) {
+                    kept.poll();
+                }
+            }
+
+            Integer[] page = kept.toArray(new Integer[0]);
+            Arrays.sort(page, comparator);
+            List<Long> teamIdsInOrder = new ArrayList<>(page.length);
+            for (int row : page) {
+                teamIdsInOrder.add(teamIds[row]);
+            }
+            return teamIdsInOrder;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Team counts per domain and per skill for the discover filters, most teams first.
+     * Domain counts apply the skill filter and skill counts apply the domain filter, so each
+     * count is the number of teams the user would see after picking that value.
+     */
+    public Facets facets(Long userId, String domain, Collection<String> skillNames, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer domainId = domainFilter(domain);
+            int[] skillIds = skillFilter(skillNames);
+
+            Map<Integer, Integer> domainCounts = new HashMap<>();
+            BitSet bySkills = filter(userId, null, skillIds);
+            for (int row = bySkills.nextSetBit(0); row >= 0; row = bySkills.nextSetBit(row + 1)) {
+                if (domainIds[row] >= 0) {
+                    domainCounts.merge(domainIds[row], 1, Integer::sum);
+                }
+            }
+
+            Map<Integer, Integer> skillCounts = new HashMap<>();
+            BitSet byDomain = filter(userId, domainId, null);
+            for (int row = byDomain.nextSetBit(0); row >= 0; row = byDomain.nextSetBit(row + 1)) {
+                for (int skill : skills[row].toArray()) {
+                    skillCounts.merge(skill, 1, Integer::sum);
+                }
+            }
+
+            return new Facets(named(domainCounts, limit), named(skillCounts, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Integer domainFilter(String domain) {
+        if (domain == null || domain.isBlank()) {
+            return null;
+        }
+        return skillDictionary.find(domain);
+    }
+
+    private int[] skillFilter(Collection<String> skillNames) {
+        if (skillNames == null || skillNames.isEmpty()) {
+            return null;
+        }
+        int[] ids = new int[skillNames.size()];
+        int n = 0;
+        for (String name : skillNames) {
+            ids[n++] = skillDictionary.find(name);
+        }
+        return ids;
+    }
+
+    /**
+     * Live rows in the domain (null for any), requiring any of the skills (null for any),
+     * minus the teams the user belongs to
+     */
+    private BitSet filter(Long userId, Integer domainId, int[] skillIds) {
+        BitSet rows = (BitSet) live.clone();
+        if (domainId != null) {
+            BitSet domain = domainRows.get(domainId);
+            if (domain == null) {
+                return new BitSet();
+            }
+            rows.and(domain);
+        }
+        if (skillIds != null) {
+            BitSet anySkill = new BitSet();
+            for (int skillId : skillIds) {
+                BitSet skill = skillRows.get(skillId);
+                if (skill != null) {
+                    anySkill.or(skill);
+                }
+            }
+            rows.and(anySkill);
+        }
+        if (userId != null) {
+            BitSet own = memberRows.get(userId);
+            if (own != null) {
+                rows.andNot(own);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Rows by sort value then team id, both in the requested direction, the same order keyset cursors assume
+     */
+    private Comparator<Integer> comparator(SortKey sortKey, boolean ascending) {
+        Comparator<Integer> byKey = Comparator.<Integer>comparingLong(row -> sortValue(sortKey, row))
+                .thenComparingLong(row -> teamIds[row]);
+        return ascending ? byKey : byKey.reversed();
+    }
+
+    private long sortValue(SortKey sortKey, int row) {
+        switch (sortKey) {
+            case MAX_MEMBERS:
+                return maxMembers[row];
+            case MEMBER_COUNT:
+                return memberCounts[row];
+            case FREE_SLOTS:
+                return maxMembers[row] - memberCounts[row];
+            default:
+                return createdAt[row];
+        }
+    }
+
+    private boolean isAfter(int row, SortKey sortKey, boolean ascending, long afterValue, long afterId) {
+        int byValue = Long.compare(sortValue(sortKey, row), afterValue);
+        int byKey = byValue != 0 ? byValue : Long.compare(teamIds[row], afterId);
+        return ascending ? byKey > 0 : byKey < 0;
+    }
+
+    private LinkedHashMap<String, Integer> named(Map<Integer, Integer> counts, int limit) {
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        LinkedHashMap<String, Integer> named = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size() && named.size() < limit; i++) {
+            String name = skillDictionary.nameOf(entries.get(i).getKey());
+            if (name != null) {
+                named.put(name, entries.get(i).getValue());
+            }
+        }
+        return named;
+    }
+
+    private void insert(TeamSkillIndex.IndexedTeam team) {
+        int row = freeRows.isEmpty() ? rowCount++ : freeRows.pop();
+        ensureCapacity(row + 1);
+
+        teamIds[row] = team.id;
+        domainIds[row] = team.domainId;
+        memberCounts[row] = team.memberCount;
+        maxMembers[row] = team.maxMembers;
+        createdAt[row] = team.createdAtMillis;
+        skills[row] = team.requiredSkills;
+        members[row] = team.memberIds;
+
+        rowsByTeam.put(team.id, row);
+        live.set(row);
+        if (team.domainId >= 0) {
+            domainRows.computeIfAbsent(team.domainId, key -> new BitSet()).set(row);
+        }
+        for (int skill : team.requiredSkills.toArray()) {
+            skillRows.computeIfAbsent(skill, key -> new BitSet()).set(row);
+        }
+        for (long memberId : team.memberIds) {
+            memberRows.computeIfAbsent(memberId, key -> new BitSet()).set(row);
+        }
+    }
+
+    private void delete(long teamId) {
+        Integer row = rowsByTeam.remove(teamId);
+        if (row == null) {
+            return;
+        }
+        live.clear(row);
+        clearRow(domainRows, domainIds[row], row);
+        for (int skill : skills[row].toArray()) {
+            clearRow(skillRows, skill, row);
+        }
+        for (long memberId : members[row]) {
+            clearRow(memberRows, memberId, row);
+        }
+        skills[row] = null;
+        members[row] = null;
+        freeRows.push(row);
+    }
+
+    private static <K> void clearRow(Map<K, BitSet> bitmaps, K key, int row) {
+        BitSet bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.clear(row);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= teamIds.length) {
+            return;
+        }
+        int grown = Math.max(capacity, teamIds.length * 2);
+        teamIds = Arrays.copyOf(teamIds, grown);
+        domainIds = Arrays.copyOf(domainIds, grown);
+        memberCounts = Arrays.copyOf(memberCounts, grown);
+        maxMembers = Arrays.copyOf(maxMembers, grown);
+        createdAt = Arrays.copyOf(createdAt, grown);
+        skills = Arrays.copyOf(skills, grown);
+        members = Arrays.copyOf(members, grown);
+    }
+
+    /**
+     * Team ids of one page in display order and the number of teams matching the filters
+     */
+    public static class SearchResult {
+        private final List<Long> teamIds;
+        private final long total;
+
+        SearchResult(List<Long> teamIds, long total) {
+            this.teamIds = teamIds;
+            this.total = total;
+        }
+
+        public List<Long> getTeamIds() {
+            return teamIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Team counts keyed by normalized domain and skill name
+     */
+    public static class Facets {
+        private final Map<String, Integer> domains;
+        private final Map<String, Integer> skills;
+
+        Facets(Map<String, Integer> domains, Map<String, Integer> skills) {
+            this.domains = domains;
+            this.skills = skills;
+        }
+
+        public Map<String, Integer> getDomains() {
+            return domains;
+        }
+
+        public Map<String, Integer> getSkills() {
+            return skills;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package com.hackmate.service.matching;
+
+import com.hackmate.model.Team;
+import com.hackmate.model.User;
+import com.hackmate.repository.TeamRepository;
+import com.hackmate.repository.UserRepository;
+import com.hackmate.service.cache.InvalidationChannel;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index of open teams keyed by required skill and project domain.
+ * Candidate teams for a user are gathered from the postings of the user's skills and
+ * interests only, then scored best-first so teams that cannot enter the top K are skipped.
+ * Changes made on other instances arrive over the {@link InvalidationChannel} and reload the team.
+ */
+@Component
+public class TeamSkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamSkillIndex.class);
+
+    static final double SKILL_WEIGHT = 0.7;
+    static final double DOMAIN_WEIGHT = 0.2;
+    static final double AVAILABILITY_WEIGHT = 0.1;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ParallelScoringEngine scoringEngine;
+
+    @Autowired
+    private InvalidationChannel invalidationChannel;
+
+    // skill id -> (team id -> number of skills that team requires)
+    private final Map<Integer, Map<Long, Integer>> skillPostings = new ConcurrentHashMap<>();
+
+    // project domain id -> team ids
+    private final Map<Integer, Set<Long>> domainPostings = new ConcurrentHashMap<>();
+
+    private final Map<Long, IndexedTeam> teams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        invalidationChannel.subscribeRemote(new InvalidationChannel.Listener() {
+            @Override
+            public void invalidate(long teamId) {
+                reload(teamId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                rebuild();
+            }
+        });
+    }
+
+    /**
+     * Load every open team that still has free slots
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Map<Long, List<Long>> membersByTeam = new HashMap<>();
+        for (Object[] row : teamRepository.findOpenTeamMemberIds()) {
+            membersByTeam.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+        Map<Long, Map<Long, List<String>>> memberSkillsByTeam = new HashMap<>();
+        for (Object[] row : teamRepository.findOpenTeamMemberSkills()) {
+            memberSkillsByTeam.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                    .computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add((String) row[2]);
+        }
+
+        skillPostings.clear();
+        domainPostings.clear();
+        teams.clear();
+
+        for (Team team : teamRepository.findByIsOpenTrue()) {
+            Map<Long, List<String>> skillNames = memberSkillsByTeam.getOrDefault(team.getId(), Collections.emptyMap());
+            Map<Long, SkillVector> memberSkills = new HashMap<>();
+            for (Long memberId : membersByTeam.getOrDefault(team.getId(), Collections.emptyList())) {
+                memberSkills.put(memberId, skillDictionary.vectorOf(
+                        skillNames.getOrDefault(memberId, Collections.emptyList())));
+            }
+            index(IndexedTeam.of(team, memberSkills, skillDictionary));
+        }
+        logger.info("Team skill index built with {} open teams and {} skills", teams.size(), skillPostings.size());
+    }
+
+    /**
+     * Re-index a team after it was created or edited, or a member's skills changed. Walks the
+     * team's members and their skills; joins and leaves go through memberJoined and memberLeft.
+     */
+    public void upsert(Team team) {
+        Map<Long, SkillVector> memberSkills = new HashMap<>();
+        for (User member : team.getMembers()) {
+            memberSkills.put(member.getId(), skillDictionary.vectorOf(member.getSkills()));
+        }
+        IndexedTeam current = IndexedTeam.of(team, memberSkills, skillDictionary);
+        IndexedTeam previous;
+        synchronized (this) {
+            previous = unindex(team.getId());
+            index(current);
+        }
+        publishChange(team.getId(), previous, current);
+    }
+
+    /**
+     * Re-read a team another instance changed. A local change that lands while the team is being
+     * read makes the read stale, so it is read again.
+     */
+    public void reload(Long teamId) {
+        IndexedTeam previous;
+        IndexedTeam current;
+        while (true) {
+            IndexedTeam before = teams.get(teamId);
+            current = load(teamId);
+            synchronized (this) {
+                // Every local change installs a new snapshot, so an unchanged one means none overlapped
+                if (teams.get(teamId) == before) {
+                    previous = unindex(teamId);
+                    if (current != null) {
+                        index(current);
+                    }
+                    break;
+                }
+            }
+        }
+        publishChange(teamId, previous, current);
+    }
+
+    /**
+     * Add a member to an indexed team from the member's skills alone. A team that is not indexed
+     * was closed or full before the join and cannot start accepting members by gaining one.
+     */
+    public void memberJoined(Long teamId, Long userId) {
+        SkillVector skills = skillDictionary.vectorOf(userRepository.findSkillsByUserId(userId));
+        IndexedTeam previous;
+        IndexedTeam current;
+        synchronized (this) {
+            previous = teams.get(teamId);
+            if (previous == null || previous.hasMember(userId)) {
+                return;
+            }
+            current = previous.withMember(userId, skills);
+            unindex(teamId);
+            index(current);
+        }
+        publishChange(teamId, previous, current);
+    }
+
+    /**
+     * Remove a member from an indexed team from the member's skills alone. A team that is not
+     * indexed may have been full and accepts members again, so it is loaded by id.
+     */
+    public void memberLeft(Long teamId, Long userId) {
+        SkillVector skills = skillDictionary.vectorOf(userRepository.findSkillsByUserId(userId));
+        IndexedTeam previous;
+        IndexedTeam current = null;
+        synchronized (this) {
+            previous = teams.get(teamId);
+            if (previous != null) {
+                if (!previous.hasMember(userId)) {
+                    return;
+                }
+                current = previous.withoutMember(userId, skills);
+                    unindex(teamId);
+                index(current);
+            }
+        }
+        if (previous == null) {
+            current = load(teamId);
+            if (current == null) {
+                return;
+            }
+            synchronized (this) {
+                    previous = unindex(teamId);
+                index(current);
+            }
+        }
+        publishChange(teamId, previous, current);
+    }
+
+    /**
+     * Drop a team from the index
+     */
+    public void remove(Long teamId) {
+        IndexedTeam previous;
+        synchronized (this) {
+            previous = unindex(teamId);
+        }
+        publishChange(teamId, previous, null);
+    }
+
+    /**
+     * Recompute the recency part of every availability score. Recency is measured in days,
+     * so a coarse schedule keeps it exact enough; member counts are refreshed on every upsert.
+     */
+    @Scheduled(fixedRateString = "${app.matching.availability.refresh-ms:3600000}",
+               initialDelayString = "${app.matching.availability.refresh-ms:3600000}")
+    public void refreshAvailability() {
+        long now = System.currentTimeMillis();
+        for (IndexedTeam team : teams.values()) {
+            team.refreshAvailability(now);
+        }
+    }
+
+    public int size() {
+        return teams.size();
+    }
+
+    public Set<Long> teamIds() {
+        return new HashSet<>(teams.keySet());
+    }
+
+    IndexedTeam find(Long teamId) {
+        return teams.get(teamId);
+    }
+
+    Collection<IndexedTeam> indexedTeams() {
+        return Collections.unmodifiableCollection(teams.values());
+    }
+
+    /**
+     * Required skills of an open team that none of its members has, or null if the team is not indexed
+     */
+    public SkillVector skillGap(Long teamId) {
+        IndexedTeam team = teams.get(teamId);
+        return team != null ? team.skillGap : null;
+    }
+
+    /**
+     * Add every indexed team requiring one of the skills or working in one of the domains
+     */
+    public void collectOverlapping(SkillVector skills, SkillVector interests, Set<Long> into) {
+        for (int skill : skills.toArray()) {
+            Map<Long, Integer> posting = skillPostings.get(skill);
+            if (posting != null) {
+                into.addAll(posting.keySet());
+            }
+        }
+        for (int interest : interests.toArray()) {
+            Set<Long> posting = domainPostings.get(interest);
+            if (posting != null) {
+                into.addAll(posting);
+            }
+        }
+    }
+
+    /**
+     * Best scoring open teams for a user that the user has not joined yet, best first
+     */
+    public List<ScoredMatch> topMatches(Long userId, SkillVector userSkills, SkillVector userInterests, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Accumulate the number of matching skills per team straight from the postings
+        Map<Long, int[]> overlaps = new HashMap<>();
+        for (int skill : userSkills.toArray()) {
+            Map<Long, Integer> posting = skillPostings.get(skill);
+            if (posting == null) {
+                continue;
+            }
+            for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                int[] counts = overlaps.computeIfAbsent(entry.getKey(), id -> new int[]{0, entry.getValue(), 0});
+                counts[0]++;
+            }
+        }
+        for (int interest : userInterests.toArray()) {
+            Set<Long> posting = domainPostings.get(interest);
+            if (posting == null) {
+                continue;
+            }
+            for (Long teamId : posting) {
+                overlaps.computeIfAbsent(teamId, id -> new int[]{0, 0, 0})[2] = 1;
+            }
+        }
+
+        // Upper bound assumes the best possible availability, which is the only part not known yet
+        int n = overlaps.size();
+        long[] candidateIds = new long[n];
+        double[] partialScores = new double[n];
+        Integer[] order = new Integer[n];
+        int i = 0;
+        for (Map.Entry<Long, int[]> entry : overlaps.entrySet()) {
+            int[] counts = entry.getValue();
+            double partial = 0.0;
+            if (counts[1] > 0) {
+                partial += SKILL_WEIGHT * counts[0] / counts[1];
+            }
+            if (counts[2] == 1) {
+                partial += DOMAIN_WEIGHT;
+            }
+            candidateIds[i] = entry.getKey();
+            partialScores[i] = partial;
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(partialScores[b], partialScores[a]));
+
+        long[] sortedIds = new long[n];
+        double[] sortedBounds = new double[n];
+        for (int rank = 0; rank < n; rank++) {
+            sortedIds[rank] = candidateIds[order[rank]];
+            sortedBounds[rank] = partialScores[order[rank]];
+        }
+
+        ParallelScoringEngine.ScoringRun run = scoringEngine.score("teams", n, limit, (from, to, topK) -> {
+            for (int rank = from; rank < to; rank++) {
+                double upperBound = sortedBounds[rank] + AVAILABILITY_WEIGHT;
+                if (topK.isFull() && upperBound <= topK.threshold()) {
+                    break; // Remaining candidates are sorted by bound, none of them can make it
+                }
+                IndexedTeam team = teams.get(sortedIds[rank]);
+                if (team == null || team.hasMember(userId)) {
+                    continue;
+                }
+                topK.offer(team.id, sortedBounds[rank] + AVAILABILITY_WEIGHT * team.availability);
+            }
+        });
+        logger.debug("Scored {} candidate teams for user {} in {} partitions, {} us",
+                n, userId, run.getPartitions(), run.getWallNanos() / 1000);
+        return run.getTopK().toSortedMatches();
+    }
+
+    private IndexedTeam load(Long teamId) {
+        Team team = teamRepository.findById(teamId).filter(Team::isOpen).orElse(null);
+        if (team == null) {
+            return null;
+        }
+        Map<Long, List<String>> skillNames = new HashMap<>();
+        for (Object[] row : teamRepository.findMemberSkillsByTeamId(teamId)) {
+            skillNames.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        Map<Long, SkillVector> memberSkills = new HashMap<>();
+        for (Long memberId : teamRepository.findMemberIdsByTeamId(teamId)) {
+            memberSkills.put(memberId, skillDictionary.vectorOf(skillNames.getOrDefault(memberId, Collections.emptyList())));
+        }
+        return IndexedTeam.of(team, memberSkills, skillDictionary);
+    }
+
+    private void index(IndexedTeam team) {
+        if (!team.acceptsMembers()) {
+            return;
+        }
+        teams.put(team.id, team);
+        int requiredCount = team.requiredSkills.cardinality();
+        for (int skill : team.requiredSkills.toArray()) {
+            skillPostings.computeIfAbsent(skill, key -> new ConcurrentHashMap<>()).put(team.id, requiredCount);
+        }
+        if (team.domainId >= 0) {
+            domainPostings.computeIfAbsent(team.domainId, key -> ConcurrentHashMap.newKeySet()).add(team.id);
+        }
+    }
+
+    private IndexedTeam unindex(Long teamId) {
+        IndexedTeam previous = teams.remove(teamId);
+        if (previous == null) {
+            return null;
+        }
+        for (int skill : previous.requiredSkills.toArray()) {
+            skillPostings.computeIfPresent(skill, (key, posting) -> {
+                posting.remove(teamId);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+        if (previous.domainId >= 0) {
+            domainPostings.computeIfPresent(previous.domainId, (key, posting) -> {
+                posting.remove(teamId);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+        return previous;
+    }
+
+    private void publishChange(Long teamId, IndexedTeam previous, IndexedTeam current) {
+        eventPublisher.publishEvent(new TeamIndexChangedEvent(
+                teamId,
+                previous != null ? previous.requiredSkills : SkillVector.EMPTY,
+                previous != null ? previous.domainId : -1,
+                current != null ? current.requiredSkills : SkillVector.EMPTY,
+                current != null ? current.domainId : -1,
+                current != null && current.acceptsMembers() ? current : null));
+    }
+
+    /**
+     * Snapshot of the team fields needed for scoring. Everything but the availability score is
+     * immutable; the score is computed once per snapshot and its recency part refreshed on a schedule.
+     * A join or leave derives a new snapshot from the previous one and the member's skills.
+     */
+    static class IndexedTeam {
+        final long id;
+        final SkillVector requiredSkills;
+        final SkillVector skillGap;
+        final int domainId;
+        final long[] memberIds;
+        final int memberCount;
+        final int maxMembers;
+        final boolean open;
+        final long createdAtMillis;
+        volatile double availability;
+
+        // Members having each required skill, in ascending skill id order; a skill is in the gap at zero
+        private final int[] coverage;
+
+        private IndexedTeam(long id, SkillVector requiredSkills, int[] coverage, int domainId,
+                            long[] memberIds, int maxMembers, boolean open, long createdAtMillis) {
+            this.id = id;
+            this.requiredSkills = requiredSkills;
+            this.coverage = coverage;
+            this.skillGap = gapOf(requiredSkills, coverage);
+            this.domainId = domainId;
+            this.memberIds = memberIds;
+            this.memberCount = memberIds.length;
+            this.maxMembers = maxMembers;
+            this.open = open;
+            this.createdAtMillis = createdAtMillis;
+            refreshAvailability(System.currentTimeMillis());
+        }
+
+        /**
+         * Snapshot of a team given every member id mapped to that member's skills
+         */
+        static IndexedTeam of(Team team, Map<Long, SkillVector> memberSkills, SkillDictionary dictionary) {
+            long[] members = memberSkills.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            LocalDateTime createdAt = team.getCreatedAt() != null ? team.getCreatedAt() : LocalDateTime.now();
+            SkillVector requiredSkills = dictionary.vectorOf(team.getRequiredSkills());
+            int[] required = requiredSkills.toArray();
+            int[] coverage = new int[required.length];
+            for (SkillVector skills : memberSkills.values()) {
+                cover(required, coverage, skills, 1);
+            }
+            return new IndexedTeam(
+                    team.getId(),
+                    requiredSkills,
+                    coverage,
+                    dictionary.idOf(team.getProjectDomain()),
+                    members,
+                    team.getMaxMembers(),
+                    team.isOpen(),
+                    createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        IndexedTeam withMember(long userId, SkillVector skills) {
+            long[] members = Arrays.copyOf(memberIds, memberIds.length + 1);
+            members[memberIds.length] = userId;
+            Arrays.sort(members);
+            int[] counts = coverage.clone();
+            cover(requiredSkills.toArray(), counts, skills, 1);
+            return new IndexedTeam(id, requiredSkills, counts, domainId, members, maxMembers, open, createdAtMillis);
+        }
+
+        IndexedTeam withoutMember(long userId, SkillVector skills) {
+            int at = Arrays.binarySearch(memberIds, userId);
+            long[] members = new long[memberIds.length - 1];
+            System.arraycopy(memberIds, 0, members, 0, at);
+            System.arraycopy(memberIds, at + 1, members, at, members.length - at);
+            int[] counts = coverage.clone();
+            cover(requiredSkills.toArray(), counts, skills, -1);
+            return new IndexedTeam(id, requiredSkills, counts, domainId, members, maxMembers, open, createdAtMillis);
+        }
+
+        private static void cover(int[] required, int[] coverage, SkillVector skills, int delta) {
+            for (int i = 0; i < required.length; i++) {
+                if (skills.contains(required[i])) {
+                    coverage[i] = Math.max(0, coverage[i] + delta);
+                }
+            }
+        }
+
+        private static SkillVector gapOf(SkillVector requiredSkills, int[] coverage) {
+            int[] required = requiredSkills.toArray();
+            int[] missing = new int[required.length];
+            int n = 0;
+            for (int i = 0; i < required.length; i++) {
+                if (coverage[i] == 0) {
+                    missing[n++] = required[i];
+                }
+            }
+            return n == required.length ? requiredSkills : SkillVector.of(Arrays.copyOf(missing, n));
+        }
+
+        boolean acceptsMembers() {
+            return open && memberCount < maxMembers;
+        }
+
+        boolean hasMember(Long userId) {
+            return userId != null && Arrays.binarySearch(memberIds, userId) >= 0;
+        }
+
+        /**
+         * Open slot ratio blended with a recency bonus that decays over 30 days
+         */
+        void refreshAvailability(long nowMillis) {
+            if (memberCount >= maxMembers) {
+                availability = 0.0;
+                return;
+            }
+            double availabilityRatio = (double) (maxMembers - memberCount) / maxMembers;
+            long daysSinceCreation = Duration.ofMillis(Math.max(0, nowMillis - createdAtMillis)).toDays();
+            double recencyBonus = Math.max(0, 1.0 - (daysSinceCreation / 30.0));
+            availability = (availabilityRatio * 0.7) + (recencyBonus * 0.3);
+        }
+    }
+}
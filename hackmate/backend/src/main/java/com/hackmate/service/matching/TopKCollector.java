@@ -0,0 +1,134 @@
+package com.hackmate.service.matching;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded min-heap keeping the K best (id, score) pairs seen so far.
+ * Backed by primitive arrays so offering a candidate never allocates.
+ */
+public class TopKCollector {
+
+    private final int capacity;
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopKCollector(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.ids = new long[this.capacity];
+        this.scores = new double[this.capacity];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * Score a candidate has to beat to enter the heap
+     */
+    public double threshold() {
+        return isFull() && capacity > 0 ? scores[0] : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Offer a candidate, returns true if it was kept
+     */
+    public boolean offer(long id, double score) {
+        if (capacity == 0) {
+            return false;
+        }
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (score <= scores[0]) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Fold another collector's entries into this one
+     */
+    public void merge(TopKCollector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Drain the heap into a list ordered by descending score
+     */
+    public List<ScoredMatch> toSortedMatches() {
+        int n = size;
+        long[] sortedIds = new long[n];
+        double[] sortedScores = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            sortedIds[i] = ids[0];
+            sortedScores[i] = scores[0];
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+
+        List<ScoredMatch> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(new ScoredMatch(sortedIds[i], sortedScores[i]));
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                break;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = (index << 1) + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && scores[right] < scores[left]) {
+                smallest = right;
+            }
+            if (scores[index] <= scores[smallest]) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,113 @@
+package com.hackmate.service.matching;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Reads candidate users for a team through a forward-only cursor as (user id, skill/interest)
+ * rows instead of loading User entities, and hands them over in fixed-size chunks.
+ * Soft-deleted users are left out until they are purged.
+ */
+@Component
+public class UserCandidateStream {
+
+    private static final int KIND_SKILL = 0;
+
+    private static final String CANDIDATES_SQL =
+            "SELECT c.user_id, c.name, c.kind FROM (" +
+            " SELECT us.user_id AS user_id, us.skill AS name, 0 AS kind FROM user_skills us" +
+            " UNION ALL" +
+            " SELECT ui.user_id AS user_id, ui.interest AS name, 1 AS kind FROM user_interests ui" +
+            ") c JOIN users u ON u.id = c.user_id AND u.deleted_at IS NULL";
+
+    // Skills and interests of every user, grouped by user
+    private static final String ALL_CANDIDATES_SQL = CANDIDATES_SQL + " ORDER BY c.user_id";
+
+    // Skills and interests of every user outside the team, grouped by user
+    private static final String CANDIDATES_NOT_IN_TEAM_SQL = CANDIDATES_SQL +
+            " WHERE NOT EXISTS (SELECT 1 FROM team_members tm WHERE tm.team_id = ? AND tm.user_id = c.user_id)" +
+            " ORDER BY c.user_id";
+
+    // Skills and interests of every user whose profile changed after a watermark, grouped by user
+    private static final String CANDIDATES_UPDATED_SINCE_SQL = CANDIDATES_SQL +
+            " WHERE u.updated_at > ?" +
+            " ORDER BY c.user_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SkillDictionary skillDictionary;
+
+    @Value("${app.matching.stream.fetch-size:1000}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Stream every user outside the team in chunks of at most chunkSize candidates.
+     * The chunk passed to the consumer is reused, so it must be scored before returning.
+     */
+    @Transactional(readOnly = true)
+    public void forEachChunkNotInTeam(Long teamId, int chunkSize, Consumer<CandidateChunk> consumer) {
+        stream(CANDIDATES_NOT_IN_TEAM_SQL, chunkSize, consumer, teamId);
+    }
+
+    /**
+     * Stream every user with at least one skill or interest
+     */
+    @Transactional(readOnly = true)
+    public void forEachChunk(int chunkSize, Consumer<CandidateChunk> consumer) {
+        stream(ALL_CANDIDATES_SQL, chunkSize, consumer);
+    }
+
+    /**
+     * Stream the users whose profile was updated after the given time
+     */
+    @Transactional(readOnly = true)
+    public void forEachChunkUpdatedSince(LocalDateTime since, int chunkSize, Consumer<CandidateChunk> consumer) {
+        stream(CANDIDATES_UPDATED_SINCE_SQL, chunkSize, consumer, Timestamp.valueOf(since));
+    }
+
+    private void stream(String sql, int chunkSize, Consumer<CandidateChunk> consumer, Object... args) {
+        CandidateChunk chunk = new CandidateChunk(chunkSize);
+        long[] currentUser = {Long.MIN_VALUE};
+
+        jdbcTemplate.query(sql, rs -> {
+            long userId = rs.getLong(1);
+            if (userId != currentUser[0]) {
+                if (chunk.isFull()) {
+                    consumer.accept(chunk);
+                    chunk.clear();
+                }
+                chunk.begin(userId);
+                currentUser[0] = userId;
+            }
+            int id = skillDictionary.idOf(rs.getString(2));
+            if (rs.getInt(3) == KIND_SKILL) {
+                chunk.addSkill(id);
+            } else {
+                chunk.addInterest(id);
+            }
+        }, args);
+
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+    }
+}
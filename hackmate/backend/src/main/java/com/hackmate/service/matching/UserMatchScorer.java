@@ -0,0 +1,53 @@
+package com.hackmate.service.matching;
+
+/**
+ * Scores candidate users against one team's required skills and project domain
+ */
+public class UserMatchScorer {
+
+    private static final double SKILL_WEIGHT = 0.8;
+    private static final double DOMAIN_WEIGHT = 0.2;
+
+    private final SkillVector requiredSkills;
+    private final int domainId;
+
+    public UserMatchScorer(SkillVector requiredSkills, int domainId) {
+        this.requiredSkills = requiredSkills;
+        this.domainId = domainId;
+    }
+
+    /**
+     * Skill match (80% weight) plus interest in the team's domain (20% weight)
+     */
+    public double score(CandidateChunk chunk, int index) {
+        double score = 0.0;
+
+        if (!requiredSkills.isEmpty()) {
+            int required = requiredSkills.cardinality();
+            int matchingSkills = Math.min(chunk.countSkillsIn(index, requiredSkills), required);
+            score += SKILL_WEIGHT * matchingSkills / required;
+        }
+
+        if (domainId >= 0 && chunk.hasInterest(index, domainId)) {
+            score += DOMAIN_WEIGHT;
+        }
+
+        return score;
+    }
+
+    /**
+     * Offer every candidate of the chunk with a positive score to the collector
+     */
+    public void scoreInto(CandidateChunk chunk, TopKCollector topK) {
+        scoreInto(chunk, 0, chunk.size(), topK);
+    }
+
+    public void scoreInto(CandidateChunk chunk, int from, int to, TopKCollector topK) {
+        for (int i = from; i < to; i++) {
+            double score = score(chunk, i);
+            if (score > 0) {
+                topK.offer(chunk.idAt(i), score);
+            }
+        }
+    }
+}
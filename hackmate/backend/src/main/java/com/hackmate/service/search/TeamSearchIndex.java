@@ -0,0 +1,407 @@
+package com.hackmate.service.search;
+
+import com.hackmate.config.SchedulingConfig;
+import com.hackmate.model.Team;
+import com.hackmate.repository.DatabaseClock;
+import com.hackmate.repository.TeamRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over team name, project domain and description, ranked with BM25.
+ * Name terms count three times and domain terms twice, a cheap stand-in for per-field BM25F.
+ * Updated in place as teams are created, edited and deleted, and written to a file on shutdown
+ * and on a schedule; at startup the file is loaded and only teams changed since it was written
+ * are re-read, so a restart does not re-index every team.
+ */
+@Component
+public class TeamSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamSearchIndex.class);
+
+    private static final int FILE_VERSION = 1;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DOMAIN_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private DatabaseClock databaseClock;
+
+    @Value("${app.search.index-path:data/team-search.idx}")
+    private String indexPath;
+
+    @Value("${app.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @Value("${app.search.bm25.k1:1.2}")
+    private double k1;
+
+    @Value("${app.search.bm25.b:0.75}")
+    private double b;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> team id -> weighted term frequency
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    // team id -> weighted term frequencies, kept to unindex a team and to persist
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    // team id -> weighted term count
+    private final Map<Long, Integer> lengths = new HashMap<>();
+
+    private long totalLength;
+    private volatile boolean ready;
+    private volatile boolean dirty;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        Path path = Paths.get(indexPath);
+        LocalDateTime savedAt = Files.exists(path) ? read(path) : null;
+        if (savedAt == null) {
+            rebuild();
+        } else {
+            catchUp(savedAt);
+        }
+        ready = true;
+    }
+
+    /**
+     * Index every team from scratch, reading them in id-ordered pages
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            Page<Team> page;
+            int pageNumber = 0;
+            do {
+                page = teamRepository.findAll(PageRequest.of(pageNumber++, rebuildBatchSize, Sort.by("id")));
+                for (Team team : page) {
+                    add(team.getId(), termFrequencies(team));
+                }
+            } while (page.hasNext());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Team search index built with {} teams and {} terms", documents.size(), postings.size());
+    }
+
+    /**
+     * Index teams by id in batches, as after a bulk import; ids of missing teams are skipped
+     */
+    @Transactional(readOnly = true)
+    public void index(Collection<Long> teamIds) {
+        List<Long> ids = new ArrayList<>(teamIds);
+        int indexed = 0;
+        for (int from = 0; from < ids.size(); from += rebuildBatchSize) {
+            List<Team> teams = teamRepository.findAllById(ids.subList(from, Math.min(from + rebuildBatchSize, ids.size())));
+            Map<Long, Map<String, Integer>> batch = new HashMap<>(teams.size() * 2);
+            for (Team team : teams) {
+                batch.put(team.getId(), termFrequencies(team));
+            }
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Map<String, Integer>> entry : batch.entrySet()) {
+                    unindex(entry.getKey());
+                    add(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexed += teams.size();
+        }
+        logger.info("Team search index added {} teams", indexed);
+    }
+
+    /**
+     * Index a created or edited team, replacing its previous terms
+     */
+    public void index(Team team) {
+        Map<String, Integer> frequencies = termFrequencies(team);
+        lock.writeLock().lock();
+        try {
+            unindex(team.getId());
+            add(team.getId(), frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long teamId) {
+        lock.writeLock().lock();
+        try {
+            unindex(teamId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Team ids of one page of results for the query, best match first, and the number of teams
+     * matching any query term
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (terms.isEmpty() || documentCount == 0) {
+                return new SearchResult(Collections.emptyList(), 0);
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int tf = entry.getValue();
+                    int length = lengths.get(entry.getKey());
+                    double score = idf * tf * (k1 + 1) / (tf + k1 * (1 - b + b * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+
+            // Keep only the best offset + limit, worst on top of the heap
+            int keep = offset + limit;
+            Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(Math.max(1, keep + 1), byScore);
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                best.add(entry);
+                if (best.size() > keep) {
+                    best.poll();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+            ranked.sort(byScore.reversed());
+
+            List<Long> teamIds = new ArrayList<>(Math.max(0, ranked.size() - offset));
+            for (int i = offset; i < ranked.size(); i++) {
+                teamIds.add(ranked.get(i).getKey());
+            }
+            return new SearchResult(teamIds, scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the index to disk if it changed since the last write
+     */
+    @Scheduled(fixedDelayString = "${app.search.persist-interval-ms:300000}",
+               initialDelayString = "${app.search.persist-interval-ms:300000}",
+               scheduler = SchedulingConfig.BATCH_SCHEDULER)
+    public void persistIfDirty() {
+        if (ready && dirty) {
+            persist();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistIfDirty();
+    }
+
+    private void persist() {
+        Path path = Paths.get(indexPath);
+        // The database clock, which also stamps teams.updated_at, so catchUp compares like with like
+        LocalDateTime savedAt;
+        try {
+            savedAt = databaseClock.now();
+        } catch (DataAccessException ex) {
+            logger.warn("Could not read the database clock, skipping search index save: {}", ex.getMessage());
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeUTF(savedAt.toString());
+                out.writeInt(documents.size());
+                for (Map.Entry<Long, Map<String, Integer>> document : documents.entrySet()) {
+                    out.writeLong(document.getKey());
+                    out.writeInt(document.getValue().size());
+                    for (Map.Entry<String, Integer> term : document.getValue().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeInt(term.getValue());
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException ex) {
+            logger.warn("Could not write team search index to {}: {}", path, ex.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load a persisted index, returning when it was written, or null if it is missing or unreadable
+     */
+    private LocalDateTime read(Path path) {
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            LocalDateTime savedAt = LocalDateTime.parse(in.readUTF());
+            postings.clear();
+            documents.clear();
+            lengths.clear();
+            totalLength = 0;
+            int documentCount = in.readInt();
+            for (int d = 0; d < documentCount; d++) {
+                long teamId = in.readLong();
+                int termCount = in.readInt();
+                Map<String, Integer> frequencies = new HashMap<>(termCount * 2);
+                for (int t = 0; t < termCount; t++) {
+                    frequencies.put(in.readUTF(), in.readInt());
+                }
+                add(teamId, frequencies);
+            }
+            logger.info("Team search index loaded from {} with {} teams", path, documents.size());
+            return savedAt;
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Could not read team search index from {}, rebuilding: {}", path, ex.getMessage());
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index teams edited after the index was written and drop teams deleted since
+     */
+    private void catchUp(LocalDateTime savedAt) {
+        // Overlap the cut-off a little so a transaction stamped before the save but committed after it is not missed
+        List<Team> changed = teamRepository.findByUpdatedAtAfter(savedAt.minusMinutes(1));
+        Set<Long> existing = new HashSet<>(teamRepository.findAllIds());
+        lock.writeLock().lock();
+        try {
+            for (Long teamId : new ArrayList<>(documents.keySet())) {
+                if (!existing.contains(teamId)) {
+                    unindex(teamId);
+                }
+            }
+            for (Team team : changed) {
+                unindex(team.getId());
+                add(team.getId(), termFrequencies(team));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Team search index caught up with {} changed teams", changed.size());
+    }
+
+    private static Map<String, Integer> termFrequencies(Team team) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(team.getName())) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.analyze(team.getProjectDomain())) {
+            frequencies.merge(term, DOMAIN_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.analyze(team.getDescription())) {
+            frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private void add(long teamId, Map<String, Integer> frequencies) {
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        int length = 0;
+        documents.put(teamId, frequencies);
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new HashMap<>()).put(teamId, entry.getValue());
+            length += entry.getValue();
+        }
+        lengths.put(teamId, length);
+        totalLength += length;
+        dirty = true;
+    }
+
+    private void unindex(Long teamId) {
+        Map<String, Integer> previous = documents.remove(teamId);
+        if (previous == null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : previous.entrySet()) {
+            Map<Long, Integer> posting = postings.get(entry.getKey());
+            if (posting != null) {
+                posting.remove(teamId);
+                if (posting.isEmpty()) {
+                    postings.remove(entry.getKey());
+                }
+            }
+        }
+        totalLength -= lengths.remove(teamId);
+        dirty = true;
+    }
+
+    /**
+     * Team ids of one page in rank order and the number of matching teams
+     */
+    public static class SearchResult {
+        private final List<Long> teamIds;
+        private final long total;
+
+        SearchResult(List<Long> teamIds, long total) {
+            this.teamIds = teamIds;
+            this.total = total;
+        }
+
+        public List<Long> getTeamIds() {
+            return teamIds;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
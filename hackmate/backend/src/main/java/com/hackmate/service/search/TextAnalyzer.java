@@ -0,0 +1,143 @@
+package com.hackmate.service.search;
+
+import java.util.*;
+
+/**
+ * Turns free text into index terms: lower-case, split on anything but letters, digits, '#' and '+'
+ * (so "C#" and "C++" survive), drop stop words and reduce words to a stem.
+ * Stemming is Porter's step 1 (plurals, -ed, -ing), which merges the inflections that matter for
+ * team descriptions without the over-stemming of the full algorithm.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "our", "that", "the", "this", "to", "we", "with", "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            if (Character.isLetterOrDigit(c) || c == '#' || c == '+') {
+                token.append(c);
+            } else if (token.length() > 0) {
+                String word = token.toString();
+                token.setLength(0);
+                if (!STOP_WORDS.contains(word)) {
+                    terms.add(stem(word));
+                }
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 2 || !isAlphabetic(word)) {
+            return word;
+        }
+        // Step 1a
+        if (word.endsWith("sses")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("ies")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("s") && !word.endsWith("ss")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        // Step 1b
+        boolean trimmed = false;
+        if (word.endsWith("eed")) {
+            if (measure(word.substring(0, word.length() - 3)) > 0) {
+                word = word.substring(0, word.length() - 1);
+            }
+        } else if (word.endsWith("ed") && hasVowel(word.substring(0, word.length() - 2))) {
+            word = word.substring(0, word.length() - 2);
+            trimmed = true;
+        } else if (word.endsWith("ing") && hasVowel(word.substring(0, word.length() - 3))) {
+            word = word.substring(0, word.length() - 3);
+            trimmed = true;
+        }
+        if (trimmed) {
+            if (word.endsWith("at") || word.endsWith("bl") || word.endsWith("iz")) {
+                word = word + "e";
+            } else if (endsWithDoubleConsonant(word)) {
+                char last = word.charAt(word.length() - 1);
+                if (last != 'l' && last != 's' && last != 'z') {
+                    word = word.substring(0, word.length() - 1);
+                }
+            } else if (measure(word) == 1 && endsConsonantVowelConsonant(word)) {
+                word = word + "e";
+            }
+        }
+
+        // Step 1c
+        if (word.endsWith("y") && word.length() > 2 && hasVowel(word.substring(0, word.length() - 1))) {
+            word = word.substring(0, word.length() - 1) + "i";
+        }
+        return word;
+    }
+
+    private static boolean isAlphabetic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConsonant(String word, int i) {
+        char c = word.charAt(i);
+        if (c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u') {
+            return false;
+        }
+        return c != 'y' || i == 0 || !isConsonant(word, i - 1);
+    }
+
+    private static boolean hasVowel(String stem) {
+        for (int i = 0; i < stem.length(); i++) {
+            if (!isConsonant(stem, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of vowel-consonant sequences in the stem, Porter's m
+     */
+    private static int measure(String stem) {
+        int m = 0;
+        boolean previousVowel = false;
+        for (int i = 0; i < stem.length(); i++) {
+            boolean vowel = !isConsonant(stem, i);
+            if (previousVowel && !vowel) {
+                m++;
+            }
+            previousVowel = vowel;
+        }
+        return m;
+    }
+
+    private static boolean endsWithDoubleConsonant(String word) {
+        int n = word.length();
+        return n >= 2 && word.charAt(n - 1) == word.charAt(n - 2) && isConsonant(word, n - 1);
+    }
+
+    private static boolean endsConsonantVowelConsonant(String word) {
+        int n = word.length();
+        if (n < 3 || !isConsonant(word, n - 1) || isConsonant(word, n - 2) || !isConsonant(word, n - 3)) {
+            return false;
+        }
+        char last = word.charAt(n - 1);
+        return last != 'w' && last != 'x' && last != 'y';
+    }
+}
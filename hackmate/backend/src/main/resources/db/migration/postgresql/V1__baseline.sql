@@ -0,0 +1,99 @@
+-- HackMate PostgreSQL schema as it stood before member counts, soft deletes and shared
+-- scheduler state. Databases that already have these tables are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only run the later migrations.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(120),
+    full_name VARCHAR(100),
+    phone_number VARCHAR(20),
+    bio VARCHAR(500),
+    profile_image_url VARCHAR(255),
+    provider VARCHAR(20) DEFAULT 'LOCAL',
+    provider_id VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_users_provider ON users (provider);
+CREATE INDEX IF NOT EXISTS idx_users_updated_at ON users (updated_at);
+
+CREATE TABLE IF NOT EXISTS user_skills (
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    skill VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, skill)
+);
+CREATE INDEX IF NOT EXISTS idx_user_skills_skill ON user_skills (skill);
+
+CREATE TABLE IF NOT EXISTS user_interests (
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    interest VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, interest)
+);
+CREATE INDEX IF NOT EXISTS idx_user_interests_interest ON user_interests (interest);
+
+CREATE TABLE IF NOT EXISTS teams (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(1000),
+    project_domain VARCHAR(100),
+    max_members INTEGER NOT NULL DEFAULT 10,
+    is_open BOOLEAN NOT NULL DEFAULT TRUE,
+    creator_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_teams_creator ON teams (creator_id);
+-- (filter, sort key, id) and (sort key, id) indexes back keyset pagination
+CREATE INDEX IF NOT EXISTS idx_teams_domain ON teams (project_domain, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_teams_open ON teams (is_open, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_teams_created_at ON teams (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_teams_updated_at ON teams (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_teams_name ON teams (name, id);
+CREATE INDEX IF NOT EXISTS idx_teams_max_members ON teams (max_members, id);
+
+CREATE TABLE IF NOT EXISTS team_required_skills (
+    team_id BIGINT NOT NULL REFERENCES teams (id) ON DELETE CASCADE,
+    skill VARCHAR(255) NOT NULL,
+    PRIMARY KEY (team_id, skill)
+);
+CREATE INDEX IF NOT EXISTS idx_team_required_skills_skill ON team_required_skills (skill);
+
+CREATE TABLE IF NOT EXISTS team_members (
+    team_id BIGINT NOT NULL REFERENCES teams (id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    PRIMARY KEY (team_id, user_id)
+);
+CREATE INDEX IF NOT EXISTS idx_team_members_user ON team_members (user_id);
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id BIGINT PRIMARY KEY,
+    content VARCHAR(1000) NOT NULL,
+    sender_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    team_id BIGINT NOT NULL REFERENCES teams (id) ON DELETE CASCADE,
+    type VARCHAR(20) DEFAULT 'CHAT',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_chat_messages_team_created ON chat_messages (team_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_chat_messages_sender ON chat_messages (sender_id);
+
+CREATE TABLE IF NOT EXISTS team_invitations (
+    id BIGINT PRIMARY KEY,
+    team_id BIGINT NOT NULL REFERENCES teams (id) ON DELETE CASCADE,
+    inviter_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    invitee_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
+    invitee_email VARCHAR(255),
+    invitee_phone VARCHAR(255),
+    status VARCHAR(20) DEFAULT 'PENDING',
+    type VARCHAR(20) DEFAULT 'EMAIL',
+    invitation_token VARCHAR(255) UNIQUE,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_team_invitations_team ON team_invitations (team_id);
+CREATE INDEX IF NOT EXISTS idx_team_invitations_inviter ON team_invitations (inviter_id);
+CREATE INDEX IF NOT EXISTS idx_team_invitations_invitee ON team_invitations (invitee_id);
+CREATE INDEX IF NOT EXISTS idx_team_invitations_status ON team_invitations (status);
+CREATE INDEX IF NOT EXISTS idx_team_invitations_expires ON team_invitations (expires_at);
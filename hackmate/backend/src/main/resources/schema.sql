@@ -19,9 +19,13 @@ CREATE TABLE IF NOT EXISTS users (
     provider_id VARCHAR(100),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Set on soft delete; the row and its messages are purged in the background
+    deleted_at TIMESTAMP NULL,
     INDEX idx_username (username),
     INDEX idx_email (email),
-    INDEX idx_provider (provider)
+    INDEX idx_provider (provider),
+    INDEX idx_updated_at (updated_at),
+    INDEX idx_deleted_at (deleted_at)
 );
 
 -- User skills table (many-to-many relationship)
@@ -50,16 +54,63 @@ CREATE TABLE IF NOT EXISTS teams (
     project_domain VARCHAR(50),
     max_members INT DEFAULT 5,
     is_open BOOLEAN DEFAULT TRUE,
+    -- Kept equal to the team's team_members rows by conditional UPDATEs on join and leave
+    member_count INT NOT NULL DEFAULT 0,
     creator_id BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    -- Set on soft delete; the row and its messages are purged in the background
+    deleted_at TIMESTAMP NULL,
     FOREIGN KEY (creator_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_creator (creator_id),
-    INDEX idx_domain (project_domain),
-    INDEX idx_open (is_open),
+    -- (filter, sort key, id) and (sort key, id) indexes back keyset pagination
+    INDEX idx_domain (project_domain, created_at, id),
+    INDEX idx_open (is_open, created_at, id),
+    INDEX idx_created_at (created_at, id),
+    INDEX idx_updated_at (updated_at, id),
+    INDEX idx_name (name, id),
+    INDEX idx_max_members (max_members, id),
+    INDEX idx_deleted_at (deleted_at)
+);
+
+-- Team cache invalidations shared between instances, polled by id and pruned by age
+CREATE TABLE IF NOT EXISTS team_cache_invalidations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_created_at (created_at)
 );
 
+-- Leases that let one instance at a time run a scheduled job
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    owner VARCHAR(64) NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
+
+-- Team formation proposals awaiting an organizer's commit, and the placements they propose
+CREATE TABLE IF NOT EXISTS formation_proposals (
+    id VARCHAR(36) PRIMARY KEY,
+    organizer_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    unplaced_users INT NOT NULL,
+    coverage_before INT NOT NULL,
+    coverage_after INT NOT NULL,
+    required_total INT NOT NULL,
+    local_search_improvements INT NOT NULL,
+    filled_without_gain INT NOT NULL,
+    INDEX idx_expires (expires_at)
+);
+
+CREATE TABLE IF NOT EXISTS formation_placements (
+    proposal_id VARCHAR(36) NOT NULL,
+    team_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (proposal_id, user_id),
+    FOREIGN KEY (proposal_id) REFERENCES formation_proposals(id) ON DELETE CASCADE
+);
+
 -- Team required skills table (many-to-many relationship)
 CREATE TABLE IF NOT EXISTS team_required_skills (
     team_id BIGINT NOT NULL,
@@ -163,6 +214,9 @@ INSERT IGNORE INTO team_members (team_id, user_id) VALUES
 (2, 3),
 (3, 3); -- Creator is automatically a member
 
+-- Backfill member counts for rows written before member_count existed
+UPDATE teams t SET member_count = (SELECT COUNT(*) FROM team_members tm WHERE tm.team_id = t.id);
+
 -- Sample required skills for teams
 INSERT IGNORE INTO team_required_skills (team_id, skill) VALUES
 (1, 'Python'),